@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.LongToObjConcurrentHashMap;
+import com.epam.deltix.containers.generated.LongToObjHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of striped LongToObjConcurrentHashMap, ConcurrentHashMap and LongToObjHashMap under global lock.
+ * Every operation is read with probability READ_PERCENT and write otherwise.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class ConcurrentHashMapBenchmark {
+    static final int COUNT_KEYS = 1 << 16;
+
+    @Param({"50", "90", "99"})
+    int READ_PERCENT = 90;
+
+    Long[] keys;
+    Object value = new Object();
+    LongToObjConcurrentHashMap<Object> stripedMap;
+    ConcurrentHashMap<Long, Object> concurrentHashMap;
+    LongToObjHashMap<Object> lockedMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Long[COUNT_KEYS];
+        stripedMap = new LongToObjConcurrentHashMap<>(null);
+        concurrentHashMap = new ConcurrentHashMap<>();
+        lockedMap = new LongToObjHashMap<>(null);
+        for (int i = 0; i < COUNT_KEYS; ++i) {
+            keys[i] = (long) i * 7919;
+            stripedMap.set(keys[i], value);
+            concurrentHashMap.put(keys[i], value);
+            lockedMap.set(keys[i], value);
+        }
+    }
+
+    @Benchmark
+    public Object striped() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long key = keys[random.nextInt(COUNT_KEYS)];
+        if (random.nextInt(100) < READ_PERCENT) return stripedMap.get(key);
+        stripedMap.set(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object concurrentHashMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long key = keys[random.nextInt(COUNT_KEYS)];
+        if (random.nextInt(100) < READ_PERCENT) return concurrentHashMap.get(key);
+        concurrentHashMap.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public Object globalLock() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long key = keys[random.nextInt(COUNT_KEYS)];
+        synchronized (lockedMap) {
+            if (random.nextInt(100) < READ_PERCENT) return lockedMap.get(key);
+            lockedMap.set(key, value);
+            return value;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ConcurrentHashMapBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.CharSequenceToIntFrozenHashMap;
+import com.epam.deltix.containers.generated.CharSequenceToIntHashMap;
+import com.epam.deltix.containers.generated.LongToObjFrozenHashMap;
+import com.epam.deltix.containers.generated.LongToObjHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups in chained hashmaps with lookups in frozen (minimal perfect hash) copies of them.
+ * Freeze benchmarks build frozen copy of map: run them with GC profiler (as main does) and
+ * gc.alloc.rate.norm is memory used by frozen map plus temporary arrays of builder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class FrozenHashMapBenchmark {
+    static final int COUNT_LOOKUPS = 1 << 20;
+
+    @Param({"1000", "1000000"})
+    int size = 1000;
+
+    CharSequenceToIntHashMap symbols;
+    CharSequenceToIntFrozenHashMap frozenSymbols;
+    LongToObjHashMap<String> instruments;
+    LongToObjFrozenHashMap<String> frozenInstruments;
+    String[] names;
+    String[] queries;
+    long[] ids;
+    int[] lookups;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(57);
+        names = new String[size];
+        queries = new String[size];
+        ids = new long[size];
+        symbols = new CharSequenceToIntHashMap(-1);
+        instruments = new LongToObjHashMap<>(null);
+        for (int i = 0; i < size; ++i) {
+            names[i] = "SYM" + Integer.toString(i, 36).toUpperCase() + ".X";
+            // Lookup keys are other instances (as keys parsed from input), so equality check isn't short-circuited.
+            queries[i] = new String(names[i]);
+            ids[i] = random.nextLong();
+            symbols.set(names[i], i);
+            instruments.set(ids[i], names[i]);
+        }
+        frozenSymbols = CharSequenceToIntFrozenHashMap.freeze(symbols);
+        frozenInstruments = LongToObjFrozenHashMap.freeze(instruments);
+        lookups = new int[COUNT_LOOKUPS];
+        for (int i = 0; i < COUNT_LOOKUPS; ++i) lookups[i] = random.nextInt(size);
+    }
+
+    @Benchmark
+    public int chainedSymbolGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return symbols.get(queries[lookups[index]]);
+    }
+
+    @Benchmark
+    public int frozenSymbolGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return frozenSymbols.get(queries[lookups[index]]);
+    }
+
+    @Benchmark
+    public String chainedInstrumentGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return instruments.get(ids[lookups[index]]);
+    }
+
+    @Benchmark
+    public String frozenInstrumentGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return frozenInstruments.get(ids[lookups[index]]);
+    }
+
+    @Benchmark
+    public CharSequenceToIntFrozenHashMap freezeSymbols() {
+        return CharSequenceToIntFrozenHashMap.freeze(symbols);
+    }
+
+    @Benchmark
+    public LongToObjFrozenHashMap<String> freezeInstruments() {
+        return LongToObjFrozenHashMap.freeze(instruments);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(FrozenHashMapBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.LongToLongHashMap;
+import com.epam.deltix.containers.interfaces.HashStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookup latency of LongToLongHashMap for different hash strategies and key patterns.
+ * Chain length histogram of every configuration is printed on setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class HashStrategyBenchmark {
+    static final int COUNT_KEYS = 1 << 20;
+
+    @Param({"IDENTITY", "MURMUR3", "XXHASH"})
+    String strategy = "IDENTITY";
+
+    @Param({"SEQUENTIAL", "CLUSTERED", "TIMESTAMPS", "RANDOM"})
+    String keys = "SEQUENTIAL";
+
+    LongToLongHashMap map;
+    long[] lookupKeys;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HashStrategy hashStrategy = getStrategy(strategy);
+        Random random = new Random(55);
+        lookupKeys = new long[COUNT_KEYS];
+        long timestamp = 1500000000000000000L;
+        for (int i = 0; i < COUNT_KEYS; ++i) {
+            switch (keys) {
+                case "SEQUENTIAL":
+                    lookupKeys[i] = i;
+                    break;
+                case "CLUSTERED":
+                    lookupKeys[i] = ((long) i) << 20;
+                    break;
+                case "TIMESTAMPS":
+                    timestamp += 1000 * (1 + random.nextInt(1000));
+                    lookupKeys[i] = timestamp;
+                    break;
+                default:
+                    lookupKeys[i] = random.nextLong();
+            }
+        }
+
+        map = new LongToLongHashMap(COUNT_KEYS, -1, hashStrategy);
+        for (int i = 0; i < COUNT_KEYS; ++i) map.set(lookupKeys[i], i);
+
+        int mask = Integer.highestOneBit(COUNT_KEYS - 1) << 1;
+        mask--;
+        int[] chainLength = new int[mask + 1];
+        for (int i = 0; i < COUNT_KEYS; ++i) chainLength[hashStrategy.hashCode(lookupKeys[i]) & mask]++;
+        int[] histogram = new int[17];
+        for (int length : chainLength) histogram[Math.min(length, 16)]++;
+        StringBuilder builder = new StringBuilder();
+        builder.append("Chain length histogram (").append(strategy).append(", ").append(keys).append("):");
+        for (int i = 0; i < histogram.length; ++i) {
+            if (histogram[i] > 0) builder.append(' ').append(i == 16 ? "16+" : String.valueOf(i)).append('=').append(histogram[i]);
+        }
+        System.out.println(builder);
+
+        for (int i = COUNT_KEYS - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            long swap = lookupKeys[i];
+            lookupKeys[i] = lookupKeys[j];
+            lookupKeys[j] = swap;
+        }
+    }
+
+    static HashStrategy getStrategy(String name) {
+        switch (name) {
+            case "MURMUR3":
+                return HashStrategy.MURMUR3;
+            case "XXHASH":
+                return HashStrategy.XXHASH;
+            default:
+                return HashStrategy.IDENTITY;
+        }
+    }
+
+    @Benchmark
+    public long get() {
+        index = (index + 1) & (COUNT_KEYS - 1);
+        return map.get(lookupKeys[index]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HashStrategyBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.LongToLongHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of LongToLongHashMap updates while map grows from 8 to COUNT_KEYS elements.
+ * setBatch sets BATCH_SIZE keys per invocation, like a handler of message batch, so pauses of stop-the-world growth
+ * get into p99.9 of sample-time results. Incremental resize stores elements in pages and splits a few buckets
+ * per insertion, so its p99.9 and p100 don't grow with hashmap, but median is higher: lookups in pages are slower.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 10, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class IncrementalResizeBenchmark {
+    static final int COUNT_KEYS = 1 << 22;
+    static final int BATCH_SIZE = 1024;
+
+    @Param({"false", "true"})
+    boolean incremental;
+
+    LongToLongHashMap map;
+    long[] keys;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(55);
+        keys = new long[COUNT_KEYS];
+        for (int i = 0; i < COUNT_KEYS; ++i) keys[i] = random.nextLong();
+        createMap();
+    }
+
+    void createMap() {
+        map = new LongToLongHashMap(-1);
+        map.setIncrementalResize(incremental);
+        index = 0;
+    }
+
+    @Benchmark
+    public long set() {
+        if (index == COUNT_KEYS) createMap();
+        long key = keys[index++];
+        map.set(key, key);
+        return map.get(key);
+    }
+
+    @Benchmark
+    public long setBatch() {
+        long sum = 0;
+        for (int i = 0; i < BATCH_SIZE; ++i) sum += set();
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(IncrementalResizeBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
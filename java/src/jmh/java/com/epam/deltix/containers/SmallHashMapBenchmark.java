@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.IntToLongHashMap;
+import com.epam.deltix.containers.generated.IntToLongSmallHashMap;
+import com.epam.deltix.containers.generated.ObjToObjSmallHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tiny chained hashmaps with small hashmaps (linear scan below list threshold).
+ * Lookup benchmarks measure latency over many maps, so maps are not always in cache.
+ * Create benchmarks build one map of given size: run them with GC profiler (as main does) and
+ * gc.alloc.rate.norm is memory used by one map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class SmallHashMapBenchmark {
+    static final int COUNT_MAPS = 1 << 16;
+    static final int COUNT_LOOKUPS = 1 << 20;
+
+    @Param({"4", "8"})
+    int size = 8;
+
+    IntToLongHashMap[] chainedMaps;
+    IntToLongSmallHashMap[] smallMaps;
+    ObjToObjHashMap<String, String>[] chainedObjMaps;
+    ObjToObjSmallHashMap<String, String>[] smallObjMaps;
+    String[] names;
+    int[] lookupMaps;
+    int[] lookupKeys;
+    int index;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(55);
+        names = new String[size * 2];
+        for (int i = 0; i < names.length; ++i) names[i] = "attribute" + i;
+        chainedMaps = new IntToLongHashMap[COUNT_MAPS];
+        smallMaps = new IntToLongSmallHashMap[COUNT_MAPS];
+        chainedObjMaps = new ObjToObjHashMap[COUNT_MAPS];
+        smallObjMaps = new ObjToObjSmallHashMap[COUNT_MAPS];
+        for (int i = 0; i < COUNT_MAPS; ++i) {
+            chainedMaps[i] = new IntToLongHashMap(size, -1);
+            smallMaps[i] = new IntToLongSmallHashMap(size, -1);
+            chainedObjMaps[i] = new ObjToObjHashMap<>(size, null);
+            smallObjMaps[i] = new ObjToObjSmallHashMap<>(size, null);
+            for (int j = 0; j < size; ++j) {
+                chainedMaps[i].set(j * 7, j);
+                smallMaps[i].set(j * 7, j);
+                chainedObjMaps[i].set(names[j], names[j]);
+                smallObjMaps[i].set(names[j], names[j]);
+            }
+        }
+        lookupMaps = new int[COUNT_LOOKUPS];
+        lookupKeys = new int[COUNT_LOOKUPS];
+        for (int i = 0; i < COUNT_LOOKUPS; ++i) {
+            lookupMaps[i] = random.nextInt(COUNT_MAPS);
+            lookupKeys[i] = random.nextInt(size * 2);
+        }
+    }
+
+    @Benchmark
+    public long chainedGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return chainedMaps[lookupMaps[index]].get(lookupKeys[index] * 7);
+    }
+
+    @Benchmark
+    public long smallGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return smallMaps[lookupMaps[index]].get(lookupKeys[index] * 7);
+    }
+
+    @Benchmark
+    public String chainedObjGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return chainedObjMaps[lookupMaps[index]].get(names[lookupKeys[index]]);
+    }
+
+    @Benchmark
+    public String smallObjGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return smallObjMaps[lookupMaps[index]].get(names[lookupKeys[index]]);
+    }
+
+    @Benchmark
+    public IntToLongHashMap chainedCreate() {
+        IntToLongHashMap map = new IntToLongHashMap(size, -1);
+        for (int j = 0; j < size; ++j) map.set(j * 7, j);
+        return map;
+    }
+
+    @Benchmark
+    public IntToLongSmallHashMap smallCreate() {
+        IntToLongSmallHashMap map = new IntToLongSmallHashMap(size, -1);
+        for (int j = 0; j < size; ++j) map.set(j * 7, j);
+        return map;
+    }
+
+    @Benchmark
+    public ObjToObjHashMap<String, String> chainedObjCreate() {
+        ObjToObjHashMap<String, String> map = new ObjToObjHashMap<>(size, null);
+        for (int j = 0; j < size; ++j) map.set(names[j], names[j]);
+        return map;
+    }
+
+    @Benchmark
+    public ObjToObjSmallHashMap<String, String> smallObjCreate() {
+        ObjToObjSmallHashMap<String, String> map = new ObjToObjSmallHashMap<>(size, null);
+        for (int j = 0; j < size; ++j) map.set(names[j], names[j]);
+        return map;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SmallHashMapBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.CharSequenceToIntHashMap;
+import com.epam.deltix.containers.generated.CharSequenceToIntSwissHashMap;
+import com.epam.deltix.containers.generated.LongToLongHashMap;
+import com.epam.deltix.containers.generated.LongToLongSwissHashMap;
+import com.epam.deltix.containers.interfaces.HashStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookup latency of chained hashmaps with SwissTable-style hashmaps. Half of lookups are misses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class SwissHashMapBenchmark {
+    static final int COUNT_LOOKUPS = 1 << 20;
+
+    @Param({"1024", "1048576"})
+    int size = 1024;
+
+    LongToLongHashMap chainedMap;
+    LongToLongSwissHashMap swissMap;
+    CharSequenceToIntHashMap chainedStringMap;
+    CharSequenceToIntSwissHashMap swissStringMap;
+    long[] lookupKeys;
+    String[] lookupStrings;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(55);
+        long[] keys = new long[size];
+        chainedMap = new LongToLongHashMap(size, -1, HashStrategy.MURMUR3);
+        swissMap = new LongToLongSwissHashMap(size, -1);
+        chainedStringMap = new CharSequenceToIntHashMap(size, -1, HashStrategy.MURMUR3);
+        swissStringMap = new CharSequenceToIntSwissHashMap(size, -1);
+        for (int i = 0; i < size; ++i) {
+            keys[i] = random.nextLong();
+            chainedMap.set(keys[i], i);
+            swissMap.set(keys[i], i);
+            chainedStringMap.set("SYMBOL" + keys[i], i);
+            swissStringMap.set("SYMBOL" + keys[i], i);
+        }
+        lookupKeys = new long[COUNT_LOOKUPS];
+        lookupStrings = new String[COUNT_LOOKUPS];
+        for (int i = 0; i < COUNT_LOOKUPS; ++i) {
+            lookupKeys[i] = random.nextBoolean() ? keys[random.nextInt(size)] : random.nextLong();
+            lookupStrings[i] = "SYMBOL" + lookupKeys[i];
+        }
+    }
+
+    @Benchmark
+    public long chainedGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return chainedMap.get(lookupKeys[index]);
+    }
+
+    @Benchmark
+    public long swissGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return swissMap.get(lookupKeys[index]);
+    }
+
+    @Benchmark
+    public int chainedStringGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return chainedStringMap.get(lookupStrings[index]);
+    }
+
+    @Benchmark
+    public int swissStringGet() {
+        index = (index + 1) & (COUNT_LOOKUPS - 1);
+        return swissStringMap.get(lookupStrings[index]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SwissHashMapBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
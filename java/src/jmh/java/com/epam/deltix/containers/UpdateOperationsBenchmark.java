@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.generated.LongToLongHashMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways to update counter in hashmap: get and set (two lookups), locate and setValueAt
+ * (one lookup, but separate insert of missing key), and addTo (one probe).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@Measurement(time = 5, timeUnit = TimeUnit.SECONDS, iterations = 1)
+@State(Scope.Thread)
+public class UpdateOperationsBenchmark {
+    static final int COUNT_UPDATES = 1 << 20;
+
+    @Param({"1000", "1000000"})
+    int size = 1000;
+
+    LongToLongHashMap map;
+    long[] keys;
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(59);
+        long[] instruments = new long[size];
+        for (int i = 0; i < size; ++i) instruments[i] = random.nextLong();
+        keys = new long[COUNT_UPDATES];
+        for (int i = 0; i < COUNT_UPDATES; ++i) keys[i] = instruments[random.nextInt(size)];
+        map = new LongToLongHashMap(size, 0);
+    }
+
+    @Benchmark
+    public void getAndSet() {
+        index = (index + 1) & (COUNT_UPDATES - 1);
+        long key = keys[index];
+        map.set(key, map.get(key) + 1);
+    }
+
+    @Benchmark
+    public void locateAndSetValueAt() {
+        index = (index + 1) & (COUNT_UPDATES - 1);
+        long key = keys[index];
+        long iterator = map.locate(key);
+        if (iterator == LongToLongHashMap.NO_ELEMENT) {
+            map.set(key, 1);
+        } else {
+            map.setValueAt(iterator, map.getValueAt(iterator) + 1);
+        }
+    }
+
+    @Benchmark
+    public long addTo() {
+        index = (index + 1) & (COUNT_UPDATES - 1);
+        return map.addTo(keys[index], 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(UpdateOperationsBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
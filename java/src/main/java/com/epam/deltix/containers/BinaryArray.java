@@ -23,6 +23,14 @@ import com.epam.deltix.containers.interfaces.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 
 public class BinaryArray implements BinaryConvertibleReadWrite {
@@ -40,9 +48,19 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
                     new BinaryArrayOptimization8(),
                     new BinaryArrayOptimizationTotal()
             };
+    private static final int TRANSFER_BUFFER_SIZE = 1 << 16;
+    private static final int STREAM_BUFFER_SIZE = 1 << 13;
+    // Direct buffer for I/O of file and socket channels: they copy heap buffers through their own temporary direct
+    // buffer anyway, so reading to direct buffer and copying it to data by Unsafe saves one copy.
+    // Buffer is allocated on first such I/O in thread and is kept until thread terminates, like temporary direct
+    // buffers of JDK itself, so it costs 64 KB of native memory per thread which reads or writes channels.
+    private static final ThreadLocal<ByteBuffer> TRANSFER_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE));
     private int count = 0;
     private int hashCode;
     protected long[] data;
+    // Scratch array for streams and channels which work with byte arrays, allocated on first use.
+    private byte[] streamBuffer;
 
     public BinaryArray() {
         this(8);
@@ -123,6 +141,16 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
         data = Arrays.copyOf(data, (newSize + 8) >>> 3);
     }
 
+    /**
+     * Resize data to at least newSize bytes, at least doubling its capacity, so series of appends of unknown
+     * total size copies data O(1) times per byte.
+     */
+    private void grow(int newSize) {
+        if (((newSize + 8) >>> 3) <= data.length)
+            return;
+        resize((int) Math.min(Math.max(newSize, (long) data.length << 4), Integer.MAX_VALUE - 8));
+    }
+
 
     @Override
     public void copyTo(BinaryArrayReadWrite destination) {
@@ -175,6 +203,17 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
     public BinaryArray append(BinaryArrayReadOnly str) {
         hashCode = hashCode | 0x40000000;
         resize(str.size() + count + 8);
+        if (str instanceof DirectBinaryArray) {
+            UnsafeHelper.memMoveFromAddressToLong(((DirectBinaryArray) str).getAddress(), data, count, str.size());
+            count += str.size();
+            return this;
+        }
+        if (str instanceof BinaryArraySlice) {
+            BinaryArraySlice slice = (BinaryArraySlice) str;
+            UnsafeHelper.memMoveFromLongToLong(slice.data, slice.offset, data, count, slice.length);
+            count += slice.length;
+            return this;
+        }
         for (int i = 0; i < str.size(); ++i)
             internalAppend(str.get(i));
         return this;
@@ -317,22 +356,130 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
 
     public BinaryArray append(InputStream stream) {
         hashCode = hashCode | 0x40000000;
-        boolean notEndStream = true;
-        while (notEndStream) {
-            try {
-                int x = stream.read();
-                if (x == -1) {
-                    notEndStream = false;
-                } else {
-                    append((byte) x);
-                }
-            } catch (IOException e) {
-                notEndStream = false;
+        if (stream instanceof BinaryArrayInputStream) {
+            // Rest of source is copied to data by one memory move without intermediate buffer.
+            BinaryArrayInputStream source = (BinaryArrayInputStream) stream;
+            int length = source.available();
+            if (length > 0) {
+                grow(count + length);
+                UnsafeHelper.memMoveFromLongToLong(source.dataSource.data, source.position, data, count, length);
+                count += length;
+                source.position += length;
+            }
+            return this;
+        }
+        byte[] buffer = streamBuffer();
+        try {
+            int read;
+            while ((read = stream.read(buffer, 0, buffer.length)) != -1) {
+                grow(count + read);
+                UnsafeHelper.memMoveFromByteToLong(buffer, 0, data, count, read);
+                count += read;
             }
+        } catch (IOException e) {
+            // Bytes read before exception are kept, like in previous byte-by-byte implementation.
         }
         return this;
     }
 
+    /**
+     * Append remaining bytes of buffer (from its position to its limit) and move position of buffer to its limit.
+     * Bytes of heap and direct buffers are copied by one memory move.
+     * @param buffer Source buffer.
+     * @return This BinaryArray.
+     */
+    public BinaryArray append(ByteBuffer buffer) {
+        hashCode = hashCode | 0x40000000;
+        int position = buffer.position();
+        int length = buffer.limit() - position;
+        grow(count + length);
+        if (buffer.hasArray()) {
+            UnsafeHelper.memMoveFromByteToLong(buffer.array(), buffer.arrayOffset() + position, data, count, length);
+        } else if (buffer.isDirect()) {
+            UnsafeHelper.memMoveFromAddressToLong(UnsafeHelper.getBufferAddress(buffer) + position, data, count, length);
+        } else {
+            for (int i = 0; i < length; ++i)
+                UnsafeHelper.setByteAtLongArray(data, count + i, buffer.get(position + i));
+        }
+        count += length;
+        ((Buffer) buffer).position(position + length);
+        return this;
+    }
+
+    /**
+     * Read bytes from channel and append them. Reading stops when max bytes are read, end of stream is reached
+     * or channel returns no bytes (non-blocking channel has no available bytes).
+     * Capacity for the rest of file is reserved at once for FileChannel.
+     * @param channel Source channel.
+     * @param max Maximal number of bytes to read.
+     * @return Number of read bytes, or -1 if channel has reached end of stream before any byte was read.
+     * @throws IOException If channel throws IOException. Bytes read before exception are kept.
+     */
+    public int readFrom(ReadableByteChannel channel, int max) throws IOException {
+        if (max < 0)
+            throw new IllegalArgumentException("Maximal number of bytes must be non-negative: " + max);
+        hashCode = hashCode | 0x40000000;
+        if (channel instanceof FileChannel) {
+            FileChannel file = (FileChannel) channel;
+            long rest = file.size() - file.position();
+            if (rest > 0)
+                grow((int) Math.min((long) count + Math.min(max, rest), Integer.MAX_VALUE - 8));
+        }
+        ByteBuffer buffer = transferBuffer(channel);
+        int total = 0;
+        while (total < max) {
+            ((Buffer) buffer).clear();
+            ((Buffer) buffer).limit(Math.min(max - total, buffer.capacity()));
+            int read = channel.read(buffer);
+            if (read <= 0) {
+                if (read < 0 && total == 0)
+                    return -1;
+                break;
+            }
+            ((Buffer) buffer).flip();
+            append(buffer);
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * Write all bytes of this BinaryArray to channel. For non-blocking channel this method spins until all bytes
+     * are written.
+     * @param channel Destination channel.
+     * @return Number of written bytes (size of this BinaryArray).
+     * @throws IOException If channel throws IOException.
+     */
+    public int writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = transferBuffer(channel);
+        for (int offset = 0; offset < count; ) {
+            int length = Math.min(count - offset, buffer.capacity());
+            ((Buffer) buffer).clear();
+            getBytes(buffer, offset, length);
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            offset += length;
+        }
+        return count;
+    }
+
+    private byte[] streamBuffer() {
+        if (streamBuffer == null)
+            streamBuffer = new byte[STREAM_BUFFER_SIZE];
+        return streamBuffer;
+    }
+
+    /**
+     * Direct buffer of current thread for file and socket channels. Other channels (e.g. wrappers of streams)
+     * work with byte arrays, so for them heap buffer wraps scratch array and no direct memory is involved.
+     */
+    private ByteBuffer transferBuffer(Channel channel) {
+        if (channel instanceof FileChannel || channel instanceof SelectableChannel)
+            return TRANSFER_BUFFER.get();
+        return ByteBuffer.wrap(streamBuffer());
+    }
+
     @Override
     public BinaryArray assign(UUIDReadOnly buffer) {
         hashCode = hashCode | 0x40000000;
@@ -798,6 +945,10 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
             return false;
         } else if (that instanceof BinaryArray) {
             return equals((BinaryArray) that);
+        } else if (that instanceof DirectBinaryArray) {
+            return ((DirectBinaryArray) that).equals(this);
+        } else if (that instanceof BinaryArraySlice) {
+            return ((BinaryArraySlice) that).equals(this);
         } else if (that instanceof BinaryConvertibleReadOnly) {
             return equals((BinaryConvertibleReadOnly) that);
         } else if (that instanceof CharSequence) {
@@ -818,6 +969,13 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
         UnsafeHelper.memMoveFromLongToByte(data, sourceIndex, destination, destinationIndex, count);
     }
 
+    /**
+     * Return optimization (unrolled hash and comparison) for given number of longs.
+     */
+    static BinaryArrayOptimization getOptimization(int longCount) {
+        return _optimizations[9 + ((longCount - 9) & (longCount - 9) >> 31)];
+    }
+
     @Override
     public int hashCode() {
         if ((hashCode & 0x40000000) != 0) {
@@ -850,6 +1008,40 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
         toByteArray(srcOffset, buffer, dstOffset, size);
     }
 
+    /**
+     * Copy all bytes of this BinaryArray to buffer from its position and move position of buffer after copied bytes.
+     * @param buffer Destination buffer.
+     * @throws BufferOverflowException If buffer has less remaining bytes than size of this BinaryArray.
+     */
+    public void getBytes(ByteBuffer buffer) {
+        getBytes(buffer, 0, count);
+    }
+
+    /**
+     * Copy size bytes of this BinaryArray started from srcOffset to buffer from its position and move position
+     * of buffer after copied bytes. Bytes of heap and direct buffers are copied by one memory move.
+     * @param buffer Destination buffer.
+     * @param srcOffset Offset in this BinaryArray.
+     * @param size Number of bytes to copy.
+     * @throws BufferOverflowException If buffer has less than size remaining bytes.
+     */
+    public void getBytes(ByteBuffer buffer, int srcOffset, int size) {
+        if (srcOffset < 0 || size < 0 || srcOffset + size > count)
+            throw new IndexOutOfBoundsException("Range [" + srcOffset + ", " + (srcOffset + size) + ") is out of size " + count);
+        int position = buffer.position();
+        if (buffer.limit() - position < size)
+            throw new BufferOverflowException();
+        if (buffer.hasArray()) {
+            UnsafeHelper.memMoveFromLongToByte(data, srcOffset, buffer.array(), buffer.arrayOffset() + position, size);
+        } else if (buffer.isDirect() && !buffer.isReadOnly()) {
+            UnsafeHelper.memMoveFromLongToAddress(data, srcOffset, UnsafeHelper.getBufferAddress(buffer) + position, size);
+        } else {
+            for (int i = 0; i < size; ++i)
+                buffer.put(position + i, UnsafeHelper.getByteFromLongArray(data, srcOffset + i));
+        }
+        ((Buffer) buffer).position(position + size);
+    }
+
     @Override
     public BinaryArray clone() {
         return new BinaryArray(this);
@@ -1028,4 +1220,25 @@ public class BinaryArray implements BinaryConvertibleReadWrite {
     public boolean isEmpty() {
         return count == 0;
     }
+
+    /**
+     * Return view of range of this array without copying.
+     * @param offset Offset of range in bytes.
+     * @param length Length of range in bytes.
+     * @return New slice.
+     */
+    public BinaryArraySlice slice(int offset, int length) {
+        return new BinaryArraySlice(this, offset, length);
+    }
+
+    /**
+     * Point reusable slice to range of this array without copying.
+     * @param offset Offset of range in bytes.
+     * @param length Length of range in bytes.
+     * @param toReuse Slice to reuse.
+     * @return Slice to reuse.
+     */
+    public BinaryArraySlice slice(int offset, int length, BinaryArraySlice toReuse) {
+        return toReuse.wrap(this, offset, length);
+    }
 }
\ No newline at end of file
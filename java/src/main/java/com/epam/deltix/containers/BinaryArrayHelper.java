@@ -16,10 +16,19 @@
  */
 package com.epam.deltix.containers;
 
+import sun.misc.Unsafe;
+
 /**
  * Class with some methods for work with BinaryArray
  */
 public class BinaryArrayHelper {
+    private static final long P1 = -7046029288634856825L;
+    private static final long P2 = -4417276706812531889L;
+    private static final long P3 = 1609587929392839161L;
+    private static final long P4 = -8796714831421723037L;
+    private static final long P5 = 2870177450012600261L;
+    private static final long SEED = 257;
+
     /**
      * Method to return internal buffer from BinaryArray.
      *
@@ -52,4 +61,121 @@ public class BinaryArrayHelper {
         return string.data;
     }
 
-}
\ No newline at end of file
+    /**
+     * Compute hash code of bytes packed into long array. Result is equal to hashCode() of BinaryArray with same content.
+     *
+     * @param data  Bytes packed into long array (unused bytes of last long must be zero).
+     * @param count Number of bytes.
+     * @return Hash code.
+     */
+    public static int hashCode(long[] data, int count) {
+        return (int) BinaryArray.getOptimization((count + 7) >> 3).xxHash64(data, count) & 0x3FFFFFFF;
+    }
+
+    /**
+     * Compare bytes packed into long arrays.
+     *
+     * @param data1   First array (compared from the beginning).
+     * @param data2   Second array.
+     * @param offset2 Index of first long to compare in second array.
+     * @param count   Number of bytes to compare (unused bytes of last long must be zero in both arrays).
+     * @return True if content is equal.
+     */
+    public static boolean equals(long[] data1, long[] data2, int offset2, int count) {
+        int longCount = (count + 7) >> 3;
+        return BinaryArray.getOptimization(longCount).equals(data1, data2, offset2, longCount);
+    }
+
+    /**
+     * Compute hash code of range of bytes packed into long array. Result is equal to hashCode() of BinaryArray
+     * with content of range.
+     *
+     * @param data   Bytes packed into long array.
+     * @param offset Offset of range in bytes.
+     * @param count  Number of bytes.
+     * @return Hash code.
+     */
+    public static int hashCode(long[] data, int offset, int count) {
+        return (int) xxHash64(data, Unsafe.ARRAY_LONG_BASE_OFFSET + offset, count) & 0x3FFFFFFF;
+    }
+
+    /**
+     * Return word of array with given index. Bytes of the last incomplete word after the end of array are zero,
+     * like in long[] of BinaryArray.
+     */
+    private static long getWord(Object base, long address, int count, int index) {
+        int offset = index << 3;
+        if (offset + 8 <= count)
+            return UnsafeHelper.getLong(base, address + offset);
+        long word = 0;
+        for (int i = count - 1; i >= offset; --i)
+            word = (word << 8) | (UnsafeHelper.getByte(base, address + i) & 255);
+        return word;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long mergeRound(long hash, long acc) {
+        hash ^= round(0, acc);
+        return hash * P1 + P4;
+    }
+
+    private static long finalize(long hash) {
+        hash ^= hash >>> 33;
+        hash *= P2;
+        hash ^= hash >>> 29;
+        hash *= P3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    /**
+     * Same hash as BinaryArrayOptimization of BinaryArray: unrolled variants hash all words (with zero padding)
+     * of arrays up to 8 words, and BinaryArrayOptimizationTotal hashes complete words of longer arrays.
+     * Unlike BinaryArrayOptimization, bytes after the end of range needn't be zero.
+     * @param base Object with bytes (null for off-heap memory).
+     * @param address Offset of bytes in object (address for off-heap memory).
+     * @param count Number of bytes.
+     * @return Hash of bytes.
+     */
+    static long xxHash64(Object base, long address, int count) {
+        int words = (count + 7) >>> 3;
+        if (words == 0)
+            return 0;
+        if (words == 1) {
+            long word = getWord(base, address, count, 0);
+            return count + (word ^ Long.rotateLeft(word, 19) ^ Long.rotateLeft(word, 38) ^ Long.rotateLeft(word, 57));
+        }
+        long hash = SEED + P5;
+        int index = 0;
+        int lastWord = words <= 8 ? words : count >>> 3;
+        if (lastWord >= 4) {
+            long v1 = SEED + P1 + P2;
+            long v2 = SEED + P2;
+            long v3 = SEED;
+            long v4 = SEED - P1;
+            for (; index + 4 <= lastWord; index += 4) {
+                v1 = round(v1, getWord(base, address, count, index));
+                v2 = round(v2, getWord(base, address, count, index + 1));
+                v3 = round(v3, getWord(base, address, count, index + 2));
+                v4 = round(v4, getWord(base, address, count, index + 3));
+            }
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        }
+        if (words > 8)
+            hash += count;
+        for (; index < lastWord; ++index) {
+            hash ^= round(0, getWord(base, address, count, index));
+            hash = Long.rotateLeft(hash, 27) * P1 + P4;
+        }
+        return words > 8 ? finalize(hash) : finalize(hash + count);
+    }
+}
@@ -23,8 +23,8 @@ import java.io.InputStream;
  * Mark is not supported.
  */
 public class BinaryArrayInputStream extends InputStream {
-    private BinaryArray dataSource;
-    private int position;
+    BinaryArray dataSource;
+    int position;
 
     /**
      * Constructs {@code BinaryArrayInputStream}.
@@ -65,6 +65,42 @@ public class BinaryArrayInputStream extends InputStream {
         return dataSource.getByteAt(position - 1) & (0xff);
     }
 
+    /**
+     * Reads up to {@code length} bytes of data into array by one memory move.
+     *
+     * @param buffer destination array.
+     * @param offset offset in destination array.
+     * @param length maximal number of bytes to read.
+     * @return number of read bytes, or {@code -1} if the end of the stream is reached.
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || length > buffer.length - offset)
+            throw new IndexOutOfBoundsException();
+        if (length == 0)
+            return 0;
+        int available = available();
+        if (available <= 0)
+            return -1;
+        length = Math.min(length, available);
+        dataSource.toByteArray(position, buffer, offset, length);
+        position += length;
+        return length;
+    }
+
+    /**
+     * Skips up to {@code n} bytes without reading them.
+     *
+     * @param n number of bytes to skip.
+     * @return number of skipped bytes.
+     */
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.max(0, Math.min(n, available()));
+        position += skipped;
+        return skipped;
+    }
+
     /**
      * Returns number of bytes that can be read.
      *
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.BinaryArrayReadOnly;
+import com.epam.deltix.containers.interfaces.MutableString;
+import com.epam.deltix.dfp.Decimal;
+import sun.misc.Unsafe;
+
+/**
+ * Reusable cursor which reads values from BinaryArrayReadOnly sequentially. Default byte order is little-endian
+ * (like typed accessors of BinaryArray), methods with BE suffix read big-endian values.
+ * Varints are unsigned LEB128, zigzag varints encode signed values. Strings are prefixed by varint number of chars.
+ * Format is the same as written by {@link BinaryArrayWriter}.
+ * <p>
+ * BinaryArray, BinaryArraySlice and DirectBinaryArray are read directly from their memory: every read checks bounds
+ * once and reads value by one memory access. Other arrays are read byte by byte. Reader allocates no objects.
+ * If source grows (and reallocates its buffer), reader must be wrapped again.
+ */
+public class BinaryArrayReader {
+    private Object base;
+    private long baseOffset;
+    // Source which is read byte by byte, or null if source is read from base and baseOffset.
+    private BinaryArrayReadOnly source;
+    private int position;
+    private int limit;
+
+    /**
+     * Create reader of empty array.
+     */
+    public BinaryArrayReader() {
+        base = new long[0];
+    }
+
+    /**
+     * Create reader of array.
+     * @param source Source array.
+     */
+    public BinaryArrayReader(BinaryArrayReadOnly source) {
+        wrap(source);
+    }
+
+    /**
+     * Start reading of array from its beginning.
+     * @param source Source array.
+     * @return This reader.
+     */
+    public BinaryArrayReader wrap(BinaryArrayReadOnly source) {
+        return wrap(source, 0, source.size());
+    }
+
+    /**
+     * Start reading of range of array. Positions of reader are relative to start of range.
+     * @param source Source array.
+     * @param offset Offset of range in bytes.
+     * @param length Length of range in bytes.
+     * @return This reader.
+     */
+    public BinaryArrayReader wrap(BinaryArrayReadOnly source, int offset, int length) {
+        BinaryArraySlice.checkRange(offset, length, source.size());
+        if (source instanceof BinaryArray) {
+            this.base = ((BinaryArray) source).data;
+            this.baseOffset = Unsafe.ARRAY_LONG_BASE_OFFSET + offset;
+            this.source = null;
+        } else if (source instanceof BinaryArraySlice) {
+            BinaryArraySlice slice = (BinaryArraySlice) source;
+            this.base = slice.data;
+            this.baseOffset = Unsafe.ARRAY_LONG_BASE_OFFSET + slice.offset + offset;
+            this.source = null;
+        } else if (source instanceof DirectBinaryArray) {
+            this.base = null;
+            this.baseOffset = ((DirectBinaryArray) source).getAddress() + offset;
+            this.source = null;
+        } else {
+            this.base = null;
+            this.baseOffset = offset;
+            this.source = source;
+        }
+        this.position = 0;
+        this.limit = length;
+        return this;
+    }
+
+    /**
+     * Return position of next byte to read.
+     * @return Position of reader.
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Set position of next byte to read.
+     * @param position New position of reader (from 0 to limit).
+     * @return This reader.
+     */
+    public BinaryArrayReader position(int position) {
+        if (position < 0 || position > limit)
+            throw new IndexOutOfBoundsException("Position " + position + " is out of limit " + limit);
+        this.position = position;
+        return this;
+    }
+
+    /**
+     * Return number of bytes of wrapped range.
+     * @return Limit of reader.
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Return number of bytes which are not read yet.
+     * @return Number of remaining bytes.
+     */
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * Return true if there are bytes which are not read yet.
+     * @return True if position is less than limit.
+     */
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    /**
+     * Skip bytes.
+     * @param count Number of bytes to skip.
+     * @return This reader.
+     */
+    public BinaryArrayReader skip(int count) {
+        claim(count);
+        return this;
+    }
+
+    /**
+     * Move position by size bytes and return offset of claimed bytes in base.
+     */
+    private long claim(int size) {
+        int p = position;
+        if (size < 0 || p > limit - size)
+            throw new IndexOutOfBoundsException("Can't read " + size + " bytes at position " + p + " of limit " + limit);
+        position = p + size;
+        return baseOffset + p;
+    }
+
+    /**
+     * Read little-endian value from source which is read byte by byte.
+     */
+    private long readBytes(long offset, int size) {
+        long value = 0;
+        for (int i = size - 1; i >= 0; --i)
+            value = (value << 8) | (source.get((int) offset + i) & 255);
+        return value;
+    }
+
+    public byte readByte() {
+        long offset = claim(1);
+        return source == null ? UnsafeHelper.getByte(base, offset) : source.get((int) offset);
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public short readInt16() {
+        long offset = claim(2);
+        return source == null ? UnsafeHelper.getShort(base, offset) : (short) readBytes(offset, 2);
+    }
+
+    public short readInt16BE() {
+        return Short.reverseBytes(readInt16());
+    }
+
+    public char readChar() {
+        return (char) readInt16();
+    }
+
+    public int readInt32() {
+        long offset = claim(4);
+        return source == null ? UnsafeHelper.getInt(base, offset) : (int) readBytes(offset, 4);
+    }
+
+    public int readInt32BE() {
+        return Integer.reverseBytes(readInt32());
+    }
+
+    public long readInt64() {
+        long offset = claim(8);
+        return source == null ? UnsafeHelper.getLong(base, offset) : readBytes(offset, 8);
+    }
+
+    public long readInt64BE() {
+        return Long.reverseBytes(readInt64());
+    }
+
+    public float readSingle() {
+        return Float.intBitsToFloat(readInt32());
+    }
+
+    public float readSingleBE() {
+        return Float.intBitsToFloat(readInt32BE());
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readInt64());
+    }
+
+    public double readDoubleBE() {
+        return Double.longBitsToDouble(readInt64BE());
+    }
+
+    /**
+     * Read Decimal64 value (8 bytes of its underlying long, little-endian).
+     * @return Underlying long of Decimal64 value.
+     */
+    @Decimal
+    public long readDecimal64() {
+        return readInt64();
+    }
+
+    /**
+     * Read unsigned LEB128 varint of up to 5 bytes.
+     * @return Value of varint (bits of unsigned value).
+     * @throws IllegalStateException If varint is longer than 5 bytes.
+     */
+    public int readVarInt32() {
+        if (source == null && limit - position >= 5) {
+            long offset = baseOffset + position;
+            int result = 0;
+            for (int i = 0; i < 5; ++i) {
+                byte b = UnsafeHelper.getByte(base, offset + i);
+                result |= (b & 0x7F) << (7 * i);
+                if (b >= 0) {
+                    position += i + 1;
+                    return result;
+                }
+            }
+        } else {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = readByte();
+                result |= (b & 0x7F) << shift;
+                if (b >= 0)
+                    return result;
+            }
+        }
+        throw new IllegalStateException("Varint at position " + position + " is longer than 5 bytes");
+    }
+
+    /**
+     * Read unsigned LEB128 varint of up to 10 bytes.
+     * @return Value of varint (bits of unsigned value).
+     * @throws IllegalStateException If varint is longer than 10 bytes.
+     */
+    public long readVarInt64() {
+        if (source == null && limit - position >= 10) {
+            long offset = baseOffset + position;
+            long result = 0;
+            for (int i = 0; i < 10; ++i) {
+                byte b = UnsafeHelper.getByte(base, offset + i);
+                result |= (long) (b & 0x7F) << (7 * i);
+                if (b >= 0) {
+                    position += i + 1;
+                    return result;
+                }
+            }
+        } else {
+            long result = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0)
+                    return result;
+            }
+        }
+        throw new IllegalStateException("Varint at position " + position + " is longer than 10 bytes");
+    }
+
+    /**
+     * Read signed value encoded by zigzag varint.
+     * @return Value.
+     */
+    public int readZigZagInt32() {
+        int value = readVarInt32();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read signed value encoded by zigzag varint.
+     * @return Value.
+     */
+    public long readZigZagInt64() {
+        long value = readVarInt64();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read string of UTF-16 chars (2 bytes per char) prefixed by varint number of chars.
+     * @param destination String to replace by read chars.
+     * @return Destination.
+     */
+    public MutableString readString(MutableString destination) {
+        int length = readVarInt32();
+        if (length < 0 || length > remaining() >> 1)
+            throw new IndexOutOfBoundsException("Can't read string of " + length + " chars at position " + position + " of limit " + limit);
+        long offset = claim(length << 1);
+        destination.clear();
+        for (int i = 0; i < length; ++i)
+            destination.append(source == null ? (char) UnsafeHelper.getShort(base, offset + (i << 1)) : (char) readBytes(offset + (i << 1), 2));
+        return destination;
+    }
+
+    /**
+     * Read string of ASCII chars (1 byte per char) prefixed by varint number of chars.
+     * @param destination String to replace by read chars.
+     * @return Destination.
+     */
+    public MutableString readAsciiString(MutableString destination) {
+        int length = readVarInt32();
+        long offset = claim(length);
+        destination.clear();
+        for (int i = 0; i < length; ++i)
+            destination.append((char) (source == null ? UnsafeHelper.getByte(base, offset + i) : source.get((int) offset + i)));
+        return destination;
+    }
+}
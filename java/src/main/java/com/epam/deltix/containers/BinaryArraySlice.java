@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.BinaryArrayReadOnly;
+import com.epam.deltix.containers.interfaces.BinaryArrayReadWrite;
+
+/**
+ * Reusable read-only view of range of bytes of BinaryArray (flyweight): slice points to internal long[] of parent
+ * with offset and length, so fields of message (and nested messages) are read without copying.
+ * Typed accessors, equality and hash code are the same as in BinaryArray with the same bytes.
+ * <p>
+ * Slice sees changes of bytes of parent, but if parent grows (and reallocates its buffer), slice keeps pointing to
+ * old buffer, so slice must be wrapped again after appends to parent. Hash code is not cached.
+ */
+public class BinaryArraySlice implements BinaryArrayReadOnly {
+    long[] data;
+    int offset;
+    int length;
+
+    /**
+     * Create empty slice.
+     */
+    public BinaryArraySlice() {
+        data = new long[0];
+    }
+
+    /**
+     * Create slice of range of array.
+     * @param parent Parent array.
+     * @param offset Offset of range in bytes.
+     * @param length Length of range in bytes.
+     */
+    public BinaryArraySlice(BinaryArray parent, int offset, int length) {
+        wrap(parent, offset, length);
+    }
+
+    /**
+     * Point this slice to range of array.
+     * @param parent Parent array.
+     * @param offset Offset of range in bytes.
+     * @param length Length of range in bytes.
+     * @return This slice.
+     */
+    public BinaryArraySlice wrap(BinaryArray parent, int offset, int length) {
+        checkRange(offset, length, parent.size());
+        return wrap(parent.data, offset, length);
+    }
+
+    /**
+     * Point this slice to range of another slice (for example, nested message in field of message).
+     * @param parent Parent slice.
+     * @param offset Offset of range in parent slice.
+     * @param length Length of range in bytes.
+     * @return This slice.
+     */
+    public BinaryArraySlice wrap(BinaryArraySlice parent, int offset, int length) {
+        checkRange(offset, length, parent.length);
+        return wrap(parent.data, parent.offset + offset, length);
+    }
+
+    private BinaryArraySlice wrap(long[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    static void checkRange(int offset, int length, int size) {
+        if (offset < 0 || length < 0 || offset > size - length)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + ((long) offset + length) + ") is out of size " + size);
+    }
+
+    @Override
+    public byte get(int index) {
+        return UnsafeHelper.getByteFromLongArray(data, offset + index);
+    }
+
+    @Override
+    public int size() {
+        return length;
+    }
+
+    @Override
+    public int capacity() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public boolean toBoolean(int offset) {
+        return get(offset) == 1;
+    }
+
+    public byte toByte(int offset) {
+        return get(offset);
+    }
+
+    public char toChar(int offset) {
+        return (char) toInt16(offset);
+    }
+
+    public short toInt16(int offset) {
+        return UnsafeHelper.getShortFromLongArray(data, this.offset + offset);
+    }
+
+    public int toInt32(int offset) {
+        return UnsafeHelper.getIntFromLongArray(data, this.offset + offset);
+    }
+
+    public long toInt64(int offset) {
+        return UnsafeHelper.getLongFromLongArray(data, this.offset + offset);
+    }
+
+    public float toSingle(int offset) {
+        return Float.intBitsToFloat(toInt32(offset));
+    }
+
+    public double toDouble(int offset) {
+        return Double.longBitsToDouble(toInt64(offset));
+    }
+
+    public void toUUID(com.epam.deltix.containers.interfaces.UUID uuid, int offset) {
+        uuid.setMSB(toInt64(offset));
+        uuid.setLSB(toInt64(offset + 8));
+    }
+
+    /**
+     * Copy count bytes of slice started from source index to byte array destination started from destination index.
+     * @param sourceIndex Source index.
+     * @param destination Destination.
+     * @param destinationIndex Destination index.
+     * @param count Count.
+     */
+    public void toByteArray(int sourceIndex, byte[] destination, int destinationIndex, int count) {
+        UnsafeHelper.memMoveFromLongToByte(data, offset + sourceIndex, destination, destinationIndex, count);
+    }
+
+    public byte[] toByteArray() {
+        byte[] temp = new byte[length];
+        toByteArray(0, temp, 0, length);
+        return temp;
+    }
+
+    @Override
+    public void getBytes(byte[] buffer) {
+        toByteArray(0, buffer, 0, length);
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int size) {
+        toByteArray(srcOffset, buffer, 0, size);
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int dstOffset, int size) {
+        toByteArray(srcOffset, buffer, dstOffset, size);
+    }
+
+    /**
+     * Replace content of destination with bytes of slice.
+     * @param destination Destination.
+     */
+    public void copyTo(BinaryArrayReadWrite destination) {
+        destination.assign(this);
+    }
+
+    /**
+     * Copy bytes of slice to new BinaryArray, which doesn't depend on parent.
+     * @return New BinaryArray with bytes of slice.
+     */
+    @Override
+    public BinaryArray clone() {
+        return new BinaryArray(length).append(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return BinaryArrayHelper.hashCode(data, offset, length);
+    }
+
+    public boolean equals(BinaryArraySlice another) {
+        return equals(another.data, another.offset, another.length);
+    }
+
+    public boolean equals(BinaryArray another) {
+        return equals(another.data, 0, another.size());
+    }
+
+    private boolean equals(long[] anotherData, int anotherOffset, int anotherLength) {
+        if (length != anotherLength)
+            return false;
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+            if (UnsafeHelper.getLongFromLongArray(data, offset + i) != UnsafeHelper.getLongFromLongArray(anotherData, anotherOffset + i))
+                return false;
+        for (; i < length; ++i)
+            if (UnsafeHelper.getByteFromLongArray(data, offset + i) != UnsafeHelper.getByteFromLongArray(anotherData, anotherOffset + i))
+                return false;
+        return true;
+    }
+
+    public boolean equals(BinaryArrayReadOnly another) {
+        if (another instanceof BinaryArraySlice)
+            return equals((BinaryArraySlice) another);
+        if (another instanceof BinaryArray)
+            return equals((BinaryArray) another);
+        if (length != another.size())
+            return false;
+        for (int i = 0; i < length; ++i)
+            if (get(i) != another.get(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof BinaryArrayReadOnly && equals((BinaryArrayReadOnly) that);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i + 1 < length; i += 2)
+            builder.append(toChar(i));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.BinaryArrayReadWrite;
+import com.epam.deltix.containers.interfaces.BinaryConvertibleReadWrite;
+import com.epam.deltix.dfp.Decimal;
+import com.epam.deltix.dfp.Decimal64;
+
+/**
+ * Reusable cursor which appends values to BinaryArrayReadWrite. Default byte order is little-endian
+ * (like typed appends of BinaryArray), methods with BE suffix write big-endian values.
+ * Varints are unsigned LEB128, zigzag varints encode signed values. Strings are prefixed by varint number of chars.
+ * Written values are read by {@link BinaryArrayReader}.
+ * <p>
+ * Values are appended by typed appends of BinaryConvertibleReadWrite (BinaryArray, DirectBinaryArray),
+ * other arrays are written byte by byte. Writer allocates no objects (except growing of destination).
+ */
+public class BinaryArrayWriter {
+    private BinaryArrayReadWrite destination;
+    // Destination with typed appends, or null if destination is written byte by byte.
+    private BinaryConvertibleReadWrite typed;
+
+    /**
+     * Create writer without destination.
+     */
+    public BinaryArrayWriter() {
+    }
+
+    /**
+     * Create writer which appends values to destination.
+     * @param destination Destination array.
+     */
+    public BinaryArrayWriter(BinaryArrayReadWrite destination) {
+        wrap(destination);
+    }
+
+    /**
+     * Start appending of values to destination (existing bytes of destination are kept).
+     * @param destination Destination array.
+     * @return This writer.
+     */
+    public BinaryArrayWriter wrap(BinaryArrayReadWrite destination) {
+        this.destination = destination;
+        this.typed = destination instanceof BinaryConvertibleReadWrite ? (BinaryConvertibleReadWrite) destination : null;
+        return this;
+    }
+
+    /**
+     * Return position of next byte to write (size of destination).
+     * @return Position of writer.
+     */
+    public int position() {
+        return destination.size();
+    }
+
+    /**
+     * Append little-endian value byte by byte.
+     */
+    private void writeBytes(long value, int size) {
+        for (int i = 0; i < size; ++i, value >>>= 8)
+            destination.append((byte) value);
+    }
+
+    public BinaryArrayWriter writeByte(byte value) {
+        destination.append(value);
+        return this;
+    }
+
+    public BinaryArrayWriter writeBoolean(boolean value) {
+        destination.append((byte) (value ? 1 : 0));
+        return this;
+    }
+
+    public BinaryArrayWriter writeInt16(short value) {
+        if (typed != null)
+            typed.append(value);
+        else
+            writeBytes(value, 2);
+        return this;
+    }
+
+    public BinaryArrayWriter writeInt16BE(short value) {
+        return writeInt16(Short.reverseBytes(value));
+    }
+
+    public BinaryArrayWriter writeChar(char value) {
+        return writeInt16((short) value);
+    }
+
+    public BinaryArrayWriter writeInt32(int value) {
+        if (typed != null)
+            typed.append(value);
+        else
+            writeBytes(value, 4);
+        return this;
+    }
+
+    public BinaryArrayWriter writeInt32BE(int value) {
+        return writeInt32(Integer.reverseBytes(value));
+    }
+
+    public BinaryArrayWriter writeInt64(long value) {
+        if (typed != null)
+            typed.append(value);
+        else
+            writeBytes(value, 8);
+        return this;
+    }
+
+    public BinaryArrayWriter writeInt64BE(long value) {
+        return writeInt64(Long.reverseBytes(value));
+    }
+
+    public BinaryArrayWriter writeSingle(float value) {
+        return writeInt32(Float.floatToRawIntBits(value));
+    }
+
+    public BinaryArrayWriter writeSingleBE(float value) {
+        return writeInt32BE(Float.floatToRawIntBits(value));
+    }
+
+    public BinaryArrayWriter writeDouble(double value) {
+        return writeInt64(Double.doubleToRawLongBits(value));
+    }
+
+    public BinaryArrayWriter writeDoubleBE(double value) {
+        return writeInt64BE(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Write Decimal64 value (8 bytes of its underlying long, little-endian).
+     * @param value Underlying long of Decimal64 value.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeDecimal64(@Decimal long value) {
+        return writeInt64(value);
+    }
+
+    /**
+     * Write Decimal64 value (8 bytes of its underlying long, little-endian).
+     * @param value Decimal64 value.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeDecimal64(Decimal64 value) {
+        return writeInt64(Decimal64.toUnderlying(value));
+    }
+
+    /**
+     * Write unsigned LEB128 varint (from 1 to 5 bytes).
+     * @param value Value (bits of unsigned value).
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeVarInt32(int value) {
+        while ((value & ~0x7F) != 0) {
+            destination.append((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        destination.append((byte) value);
+        return this;
+    }
+
+    /**
+     * Write unsigned LEB128 varint (from 1 to 10 bytes).
+     * @param value Value (bits of unsigned value).
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeVarInt64(long value) {
+        while ((value & ~0x7FL) != 0) {
+            destination.append((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        destination.append((byte) value);
+        return this;
+    }
+
+    /**
+     * Write signed value as zigzag varint (values of small magnitude take few bytes).
+     * @param value Value.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeZigZagInt32(int value) {
+        return writeVarInt32((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write signed value as zigzag varint (values of small magnitude take few bytes).
+     * @param value Value.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeZigZagInt64(long value) {
+        return writeVarInt64((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write string of UTF-16 chars (2 bytes per char) prefixed by varint number of chars.
+     * @param value String.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeString(CharSequence value) {
+        int length = value.length();
+        writeVarInt32(length);
+        if (typed != null && value instanceof String) {
+            typed.append((String) value, false);
+        } else {
+            for (int i = 0; i < length; ++i)
+                writeInt16((short) value.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Write string of ASCII chars (1 byte per char) prefixed by varint number of chars.
+     * @param value String of ASCII chars.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeAsciiString(CharSequence value) {
+        int length = value.length();
+        writeVarInt32(length);
+        if (typed != null && value instanceof String) {
+            typed.append((String) value, true);
+        } else {
+            for (int i = 0; i < length; ++i)
+                destination.append((byte) value.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Overwrite 4 bytes of written data with little-endian int (for example, length of message, which is known
+     * only after message is written).
+     * @param position Position of value.
+     * @param value Value.
+     * @return This writer.
+     */
+    public BinaryArrayWriter writeInt32At(int position, int value) {
+        if (position < 0 || position > destination.size() - 4)
+            throw new IndexOutOfBoundsException("Can't write 4 bytes at position " + position + " of size " + destination.size());
+        for (int i = 0; i < 4; ++i, value >>>= 8)
+            destination.set(position + i, (byte) value);
+        return this;
+    }
+}
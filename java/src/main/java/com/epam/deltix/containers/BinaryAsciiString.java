@@ -652,6 +652,17 @@ public class BinaryAsciiString implements CharSequence, com.epam.deltix.containe
         return destination;
     }
 
+    /**
+     * Point reusable slice to substring [start, end) without copying.
+     * @param start Start index
+     * @param end End index
+     * @param toReuse Slice to reuse
+     * @return Slice to reuse
+     */
+    public BinaryAsciiStringSlice slice(int start, int end, BinaryAsciiStringSlice toReuse) {
+        return toReuse.wrap(this, start, end);
+    }
+
     /**
      * Return true if one MutableString equals to another
      *
@@ -1021,6 +1032,8 @@ public class BinaryAsciiString implements CharSequence, com.epam.deltix.containe
             return false;
         } else if (that instanceof BinaryAsciiString) {
             return equals((BinaryAsciiString) that);
+        } else if (that instanceof BinaryAsciiStringSlice) {
+            return ((BinaryAsciiStringSlice) that).equals(this);
         } else
             return that instanceof CharSequence && equals((CharSequence) that);
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+/**
+ * Reusable CharSequence view of range of chars of BinaryAsciiString (flyweight), or of ASCII field of BinaryArray
+ * or BinaryArraySlice: slice points to internal long[] of parent, so text fields are read without copying.
+ * Equality and hash code are the same as in BinaryAsciiString with the same chars.
+ * <p>
+ * Slice sees changes of chars of parent, but if parent grows (and reallocates its buffer), slice keeps pointing to
+ * old buffer, so slice must be wrapped again after appends to parent. Hash code is not cached.
+ */
+public class BinaryAsciiStringSlice implements CharSequence {
+    private long[] data;
+    private int offset;
+    private int length;
+
+    /**
+     * Create empty slice.
+     */
+    public BinaryAsciiStringSlice() {
+        data = new long[0];
+    }
+
+    /**
+     * Create slice of chars [start, end) of string.
+     * @param parent Parent string.
+     * @param start Start index (inclusive).
+     * @param end End index (exclusive).
+     */
+    public BinaryAsciiStringSlice(BinaryAsciiString parent, int start, int end) {
+        wrap(parent, start, end);
+    }
+
+    /**
+     * Point this slice to chars [start, end) of string.
+     * @param parent Parent string.
+     * @param start Start index (inclusive).
+     * @param end End index (exclusive).
+     * @return This slice.
+     */
+    public BinaryAsciiStringSlice wrap(BinaryAsciiString parent, int start, int end) {
+        BinaryArraySlice.checkRange(start, end - start, parent.length());
+        return wrap(parent.data, start, end - start);
+    }
+
+    /**
+     * Point this slice to ASCII field of binary array (one byte per char).
+     * @param parent Parent array.
+     * @param offset Offset of field in bytes.
+     * @param length Length of field in bytes.
+     * @return This slice.
+     */
+    public BinaryAsciiStringSlice wrap(BinaryArray parent, int offset, int length) {
+        BinaryArraySlice.checkRange(offset, length, parent.size());
+        return wrap(parent.data, offset, length);
+    }
+
+    /**
+     * Point this slice to ASCII field of slice of binary array (one byte per char).
+     * @param parent Parent slice.
+     * @param offset Offset of field in parent slice.
+     * @param length Length of field in bytes.
+     * @return This slice.
+     */
+    public BinaryAsciiStringSlice wrap(BinaryArraySlice parent, int offset, int length) {
+        BinaryArraySlice.checkRange(offset, length, parent.length);
+        return wrap(parent.data, parent.offset + offset, length);
+    }
+
+    private BinaryAsciiStringSlice wrap(long[] data, int offset, int length) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) UnsafeHelper.getByteFromLongArray(data, offset + index);
+    }
+
+    /**
+     * Return new slice of chars [start, end) of this slice. Chars are not copied.
+     * @param start Start index (inclusive).
+     * @param end End index (exclusive).
+     * @return New slice.
+     */
+    @Override
+    public BinaryAsciiStringSlice subSequence(int start, int end) {
+        BinaryArraySlice.checkRange(start, end - start, length);
+        return new BinaryAsciiStringSlice().wrap(data, offset + start, end - start);
+    }
+
+    /**
+     * Replace content of destination with chars of slice.
+     * @param destination Destination.
+     */
+    public void copyTo(BinaryAsciiString destination) {
+        destination.clear();
+        destination.append(this);
+    }
+
+    @Override
+    public int hashCode() {
+        return BinaryArrayHelper.hashCode(data, offset, length);
+    }
+
+    public boolean equals(BinaryAsciiStringSlice another) {
+        return equals(another.data, another.offset, another.length);
+    }
+
+    public boolean equals(BinaryAsciiString another) {
+        return equals(another.data, 0, another.length());
+    }
+
+    private boolean equals(long[] anotherData, int anotherOffset, int anotherLength) {
+        if (length != anotherLength)
+            return false;
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+            if (UnsafeHelper.getLongFromLongArray(data, offset + i) != UnsafeHelper.getLongFromLongArray(anotherData, anotherOffset + i))
+                return false;
+        for (; i < length; ++i)
+            if (UnsafeHelper.getByteFromLongArray(data, offset + i) != UnsafeHelper.getByteFromLongArray(anotherData, anotherOffset + i))
+                return false;
+        return true;
+    }
+
+    public boolean equals(CharSequence string) {
+        if (string instanceof BinaryAsciiStringSlice)
+            return equals((BinaryAsciiStringSlice) string);
+        if (string instanceof BinaryAsciiString)
+            return equals((BinaryAsciiString) string);
+        if (string.length() != length)
+            return false;
+        for (int i = 0; i < length; ++i)
+            if (charAt(i) != string.charAt(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof CharSequence && equals((CharSequence) that);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i)
+            chars[i] = charAt(i);
+        return new String(chars);
+    }
+}
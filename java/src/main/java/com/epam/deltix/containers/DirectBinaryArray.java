@@ -0,0 +1,976 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary array stored in off-heap memory. Layout of bytes, typed accessors, hash code and equality are the same
+ * as in {@link BinaryArray}, so both arrays with the same bytes are equal and have the same hash code.
+ * <p>
+ * Array either owns its memory (allocated by constructor and grown by appends) or wraps memory given by address
+ * and capacity (memory of native library, shared-memory queue or direct buffer). Wrapped memory is never resized
+ * or freed by this array: appends beyond its capacity throw IllegalStateException.
+ * Owned memory must be freed by {@link #close()}.
+ * <p>
+ * Byte and typed accessors check that read bytes are within size of array and throw IndexOutOfBoundsException
+ * otherwise, so reading of closed (empty) array never touches freed memory.
+ * <p>
+ * Hash code is cached like in BinaryArray, so if wrapped memory is changed outside of this array,
+ * wrap it again to drop cached hash code.
+ */
+public class DirectBinaryArray implements BinaryConvertibleReadWrite, AutoCloseable {
+    private static final char[] HEX_DIGITS_UPPER = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    private long address;
+    private int capacity;
+    private boolean owner;
+    private int count = 0;
+    private int hashCode;
+    // Scratch array for streams, allocated on first use.
+    private byte[] streamBuffer;
+
+    /**
+     * Create array in owned off-heap memory.
+     */
+    public DirectBinaryArray() {
+        this(8);
+    }
+
+    /**
+     * Create array in owned off-heap memory.
+     * @param capacity Start capacity in bytes.
+     */
+    public DirectBinaryArray(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must be non-negative: " + capacity);
+        this.capacity = (capacity + 7) & ~7;
+        this.address = this.capacity == 0 ? 0 : UnsafeHelper.allocateMemory(this.capacity);
+        this.owner = true;
+    }
+
+    /**
+     * Create array which wraps off-heap memory.
+     * @param address Address of memory.
+     * @param size Number of bytes of array.
+     * @param capacity Number of bytes available by address (not less than size).
+     */
+    public DirectBinaryArray(long address, int size, int capacity) {
+        wrap(address, size, capacity);
+    }
+
+    /**
+     * Create copy of array in owned off-heap memory.
+     * @param x Source array.
+     */
+    public DirectBinaryArray(BinaryArrayReadOnly x) {
+        this(x.size());
+        assign(x);
+    }
+
+    /**
+     * Wrap off-heap memory. Owned memory of this array is freed.
+     * @param address Address of memory.
+     * @param size Number of bytes of array.
+     * @param capacity Number of bytes available by address (not less than size).
+     * @return This array.
+     */
+    public DirectBinaryArray wrap(long address, int size, int capacity) {
+        if (size < 0 || capacity < size)
+            throw new IllegalArgumentException("Size " + size + " must be non-negative and not greater than capacity " + capacity);
+        close();
+        this.address = address;
+        this.capacity = capacity;
+        this.owner = false;
+        this.count = size;
+        hashCode = hashCode | 0x40000000;
+        return this;
+    }
+
+    /**
+     * Wrap off-heap memory of fixed size. Owned memory of this array is freed.
+     * @param address Address of memory.
+     * @param size Number of bytes of array and available bytes by address.
+     * @return This array.
+     */
+    public DirectBinaryArray wrap(long address, int size) {
+        return wrap(address, size, size);
+    }
+
+    /**
+     * Free owned memory. Array becomes empty and owns no memory; it can be used further and allocates
+     * memory on next append. Wrapped memory is only released (not freed).
+     */
+    @Override
+    public void close() {
+        if (owner && address != 0)
+            UnsafeHelper.freeMemory(address);
+        address = 0;
+        capacity = 0;
+        owner = true;
+        count = 0;
+        hashCode = hashCode | 0x40000000;
+    }
+
+    /**
+     * Return address of first byte of array.
+     * @return Address of first byte.
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Return true if array owns its memory (memory is allocated by this array and freed by {@link #close()}).
+     * @return True if array owns its memory.
+     */
+    public boolean isOwner() {
+        return owner;
+    }
+
+    private void resize(int newSize) {
+        if (newSize <= capacity)
+            return;
+        if (!owner)
+            throw new IllegalStateException("Wrapped memory of capacity " + capacity + " can't hold " + newSize + " bytes");
+        int newCapacity = (int) Math.min(Math.max(newSize, (long) capacity << 1), Integer.MAX_VALUE - 7);
+        newCapacity = (newCapacity + 7) & ~7;
+        address = UnsafeHelper.reallocateMemory(address, newCapacity);
+        capacity = newCapacity;
+    }
+
+    private void checkIndex(int index, int length) {
+        if (index < 0 || index > count - length)
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + ((long) index + length) + ") is out of size " + count);
+    }
+
+    /**
+     * Return address of size bytes from index, checking that they are within size of array
+     * (so closed array throws instead of reading freed memory).
+     */
+    private long address(int index, int size) {
+        checkIndex(index, size);
+        return address + index;
+    }
+
+    /**
+     * Move tail of array started from index by length bytes to the end and set count to index, so following append
+     * writes inserted bytes to the gap.
+     * @return Count of array after insert.
+     */
+    private int openGap(int index, int length) {
+        if (index < 0 || index > count)
+            throw new IndexOutOfBoundsException("Index " + index + " is out of size " + count);
+        resize(count + length);
+        UnsafeHelper.memMove(address + index, address + index + length, count - index);
+        int newCount = count + length;
+        count = index;
+        return newCount;
+    }
+
+    @Override
+    public void copyTo(BinaryArrayReadWrite destination) {
+        destination.assign(this);
+    }
+
+    @Override
+    public DirectBinaryArray append(ReadOnlyString str) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + (str.length() << 1));
+        for (int i = 0; i < str.length(); ++i) {
+            UnsafeHelper.putShort(address + count, (short) str.getCharAt(i));
+            count += 2;
+        }
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(byte[] bytes) {
+        return append(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public DirectBinaryArray append(byte[] bytes, int offset, int count) {
+        hashCode = hashCode | 0x40000000;
+        resize(this.count + count);
+        UnsafeHelper.memMoveFromByteToAddress(bytes, offset, address + this.count, count);
+        this.count += count;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(BinaryArrayReadOnly str) {
+        hashCode = hashCode | 0x40000000;
+        int size = str.size();
+        resize(count + size);
+        if (str instanceof BinaryArray) {
+            UnsafeHelper.memMoveFromLongToAddress(((BinaryArray) str).data, 0, address + count, size);
+        } else if (str instanceof BinaryArraySlice) {
+            BinaryArraySlice slice = (BinaryArraySlice) str;
+            UnsafeHelper.memMoveFromLongToAddress(slice.data, slice.offset, address + count, size);
+        } else if (str instanceof DirectBinaryArray) {
+            UnsafeHelper.memMove(((DirectBinaryArray) str).address, address + count, size);
+        } else {
+            for (int i = 0; i < size; ++i)
+                UnsafeHelper.putByte(address + count + i, str.get(i));
+        }
+        count += size;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(byte buffer) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + 1);
+        UnsafeHelper.putByte(address + count, buffer);
+        count++;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(boolean buffer) {
+        return append(buffer ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public DirectBinaryArray append(char buffer) {
+        return append((short) buffer);
+    }
+
+    @Override
+    public DirectBinaryArray append(UUIDReadOnly buffer) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + 16);
+        UnsafeHelper.putLong(address + count, buffer.getMSB());
+        UnsafeHelper.putLong(address + count + 8, buffer.getLSB());
+        count += 16;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(double buffer) {
+        return append(Double.doubleToLongBits(buffer));
+    }
+
+    @Override
+    public DirectBinaryArray append(float buffer) {
+        return append(Float.floatToIntBits(buffer));
+    }
+
+    @Override
+    public DirectBinaryArray append(short buffer) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + 2);
+        UnsafeHelper.putShort(address + count, buffer);
+        count += 2;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(int buffer) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + 4);
+        UnsafeHelper.putInt(address + count, buffer);
+        count += 4;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(long buffer) {
+        hashCode = hashCode | 0x40000000;
+        resize(count + 8);
+        UnsafeHelper.putLong(address + count, buffer);
+        count += 8;
+        return this;
+    }
+
+    public DirectBinaryArray append(CharSequence str) {
+        if (str instanceof BinaryArrayReadOnly) return append((BinaryArrayReadOnly) str);
+        hashCode = hashCode | 0x40000000;
+        resize(count + (str.length() << 1));
+        for (int i = 0; i < str.length(); ++i) {
+            UnsafeHelper.putShort(address + count, (short) str.charAt(i));
+            count += 2;
+        }
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(String str) {
+        return append((CharSequence) str);
+    }
+
+    @Override
+    public DirectBinaryArray append(String str, boolean isASCII) {
+        return append((CharSequence) str, isASCII);
+    }
+
+    @Override
+    public DirectBinaryArray append(CharSequence str, boolean isASCII) {
+        if (!isASCII)
+            return append(str);
+        hashCode = hashCode | 0x40000000;
+        resize(count + str.length());
+        for (int i = 0; i < str.length(); ++i)
+            UnsafeHelper.putByte(address + count + i, (byte) str.charAt(i));
+        count += str.length();
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray append(InputStream stream) {
+        hashCode = hashCode | 0x40000000;
+        if (stream instanceof BinaryArrayInputStream) {
+            // Rest of source is copied to memory by one memory move without intermediate buffer.
+            BinaryArrayInputStream source = (BinaryArrayInputStream) stream;
+            int length = source.available();
+            if (length > 0) {
+                resize(count + length);
+                UnsafeHelper.memMoveFromLongToAddress(source.dataSource.data, source.position, address + count, length);
+                count += length;
+                source.position += length;
+            }
+            return this;
+        }
+        if (streamBuffer == null)
+            streamBuffer = new byte[1 << 13];
+        byte[] buffer = streamBuffer;
+        try {
+            int read;
+            while ((read = stream.read(buffer, 0, buffer.length)) != -1)
+                append(buffer, 0, read);
+        } catch (IOException e) {
+            // Bytes read before exception are kept, like in BinaryArray.
+        }
+        return this;
+    }
+
+    /**
+     * Append remaining bytes of buffer (from its position to its limit) and move position of buffer to its limit.
+     * @param buffer Source buffer.
+     * @return This array.
+     */
+    public DirectBinaryArray append(ByteBuffer buffer) {
+        hashCode = hashCode | 0x40000000;
+        int position = buffer.position();
+        int length = buffer.limit() - position;
+        resize(count + length);
+        if (buffer.hasArray()) {
+            UnsafeHelper.memMoveFromByteToAddress(buffer.array(), buffer.arrayOffset() + position, address + count, length);
+        } else if (buffer.isDirect()) {
+            UnsafeHelper.memMove(UnsafeHelper.getBufferAddress(buffer) + position, address + count, length);
+        } else {
+            for (int i = 0; i < length; ++i)
+                UnsafeHelper.putByte(address + count + i, buffer.get(position + i));
+        }
+        count += length;
+        ((Buffer) buffer).position(position + length);
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray assign(ReadOnlyString str) {
+        clear();
+        return append(str);
+    }
+
+    @Override
+    public DirectBinaryArray assign(byte[] bytes) {
+        clear();
+        return append(bytes);
+    }
+
+    @Override
+    public DirectBinaryArray assign(byte[] bytes, int offset, int count) {
+        clear();
+        return append(bytes, offset, count);
+    }
+
+    @Override
+    public DirectBinaryArray copyFrom(BinaryArrayReadOnly str) {
+        return assign(str);
+    }
+
+    @Override
+    public DirectBinaryArray assign(BinaryArrayReadOnly str) {
+        if (str == this) return this;
+        clear();
+        return append(str);
+    }
+
+    @Override
+    public DirectBinaryArray assign(byte buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(boolean buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(char buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(double buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(float buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(short buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(UUIDReadOnly buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(int buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(long buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(String str) {
+        clear();
+        return append(str);
+    }
+
+    @Override
+    public DirectBinaryArray assign(InputStream buffer) {
+        clear();
+        return append(buffer);
+    }
+
+    @Override
+    public DirectBinaryArray assign(String str, boolean isASCII) {
+        clear();
+        return append(str, isASCII);
+    }
+
+    @Override
+    public DirectBinaryArray assign(CharSequence str, boolean isASCII) {
+        if (str instanceof BinaryArrayReadOnly) return assign((BinaryArrayReadOnly) str);
+        clear();
+        return append(str, isASCII);
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, byte item) {
+        int newCount = openGap(index, 1);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, short item) {
+        int newCount = openGap(index, 2);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, char item) {
+        return insert(index, (short) item);
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, int item) {
+        int newCount = openGap(index, 4);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, long item) {
+        int newCount = openGap(index, 8);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, double item) {
+        return insert(index, Double.doubleToLongBits(item));
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, float item) {
+        return insert(index, Float.floatToIntBits(item));
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, ReadOnlyString item) {
+        int newCount = openGap(index, item.length() << 1);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, byte[] item) {
+        return insert(index, item, 0, item.length);
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, byte[] item, int offset, int count) {
+        int newCount = openGap(index, count);
+        append(item, offset, count);
+        this.count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, boolean item) {
+        return insert(index, item ? (byte) 1 : (byte) 0);
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, BinaryArrayReadOnly item) {
+        if (item == this) return insert(index, toByteArray());
+        int newCount = openGap(index, item.size());
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, String item) {
+        int newCount = openGap(index, item.length() << 1);
+        append(item);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray insert(int index, String item, boolean isASCII) {
+        if (!isASCII)
+            return insert(index, item);
+        int newCount = openGap(index, item.length());
+        append(item, true);
+        count = newCount;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray removeAt(int index) {
+        checkIndex(index, 1);
+        hashCode = hashCode | 0x40000000;
+        UnsafeHelper.memMove(address + index + 1, address + index, count - index - 1);
+        count--;
+        return this;
+    }
+
+    @Override
+    public void setByteAt(int index, byte x) {
+        UnsafeHelper.putByte(address(index, 1), x);
+        hashCode = hashCode | 0x40000000;
+    }
+
+    @Override
+    public DirectBinaryArray set(int index, byte x) {
+        setByteAt(index, x);
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray clear() {
+        count = 0;
+        hashCode = hashCode | 0x40000000;
+        return this;
+    }
+
+    @Override
+    public DirectBinaryArray clone() {
+        return new DirectBinaryArray(this);
+    }
+
+    @Override
+    public byte getByteAt(int index) {
+        return UnsafeHelper.getByte(address(index, 1));
+    }
+
+    @Override
+    public byte get(int index) {
+        return getByteAt(index);
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public boolean toBoolean() {
+        return toBoolean(0);
+    }
+
+    @Override
+    public byte toByte() {
+        return getByteAt(0);
+    }
+
+    @Override
+    public char toChar() {
+        return toChar(0);
+    }
+
+    @Override
+    public double toDouble() {
+        return toDouble(0);
+    }
+
+    @Override
+    public short toInt16() {
+        return toInt16(0);
+    }
+
+    @Override
+    public int toInt32() {
+        return toInt32(0);
+    }
+
+    @Override
+    public long toInt64() {
+        return toInt64(0);
+    }
+
+    @Override
+    public float toSingle() {
+        return toSingle(0);
+    }
+
+    @Override
+    public boolean toBoolean(int offset) {
+        return getByteAt(offset) == 1;
+    }
+
+    @Override
+    public byte toByte(int offset) {
+        return getByteAt(offset);
+    }
+
+    @Override
+    public char toChar(int offset) {
+        return (char) toInt16(offset);
+    }
+
+    @Override
+    public double toDouble(int offset) {
+        return Double.longBitsToDouble(toInt64(offset));
+    }
+
+    @Override
+    public short toInt16(int offset) {
+        return UnsafeHelper.getShort(address(offset, 2));
+    }
+
+    @Override
+    public int toInt32(int offset) {
+        return UnsafeHelper.getInt(address(offset, 4));
+    }
+
+    @Override
+    public long toInt64(int offset) {
+        return UnsafeHelper.getLong(address(offset, 8));
+    }
+
+    @Override
+    public float toSingle(int offset) {
+        return Float.intBitsToFloat(toInt32(offset));
+    }
+
+    @Override
+    public long toLong() {
+        return toLong(0);
+    }
+
+    @Override
+    public long toLong(int offset) {
+        return toInt64(offset);
+    }
+
+    @Override
+    public void toUUID(com.epam.deltix.containers.interfaces.UUID buffer) {
+        toUUID(buffer, 0);
+    }
+
+    @Override
+    public void toUUID(com.epam.deltix.containers.interfaces.UUID buffer, int offset) {
+        buffer.setMSB(toInt64(offset));
+        buffer.setLSB(toInt64(offset + 8));
+    }
+
+    @Override
+    public UUID toUUID() {
+        UUID uuid = new UUID();
+        toUUID(uuid);
+        return uuid;
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str) {
+        toMutableString(str, 0);
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str, int offset) {
+        toMutableString(str, offset, count - offset);
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str, int offset, int length) {
+        str.clear();
+        for (int i = offset; i < offset + length; i += 2)
+            str.append((char) UnsafeHelper.getShort(address + i));
+    }
+
+    @Override
+    public MutableString toMutableString() {
+        MutableString string = new MutableString();
+        toMutableString(string);
+        return string;
+    }
+
+    @Override
+    public void toUTF8(byte[] utf8) {
+        toUTF8(utf8, 0);
+    }
+
+    @Override
+    public void toUTF8(byte[] utf8, int offset) {
+        toByteArray(offset, utf8, 0, count - offset);
+    }
+
+    @Override
+    public void toByteArray(int sourceIndex, byte[] destination, int destinationIndex, int count) {
+        UnsafeHelper.memMoveFromAddressToByte(address(sourceIndex, count), destination, destinationIndex, count);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] temp = new byte[count];
+        toByteArray(0, temp, 0, count);
+        return temp;
+    }
+
+    @Override
+    public void getBytes(byte[] buffer) {
+        toByteArray(0, buffer, 0, count);
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int size) {
+        toByteArray(srcOffset, buffer, 0, size);
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int dstOffset, int size) {
+        toByteArray(srcOffset, buffer, dstOffset, size);
+    }
+
+    /**
+     * Copy all bytes of this array to buffer from its position and move position of buffer after copied bytes.
+     * @param buffer Destination buffer.
+     * @throws BufferOverflowException If buffer has less remaining bytes than size of this array.
+     */
+    public void getBytes(ByteBuffer buffer) {
+        int position = buffer.position();
+        if (buffer.limit() - position < count)
+            throw new BufferOverflowException();
+        if (buffer.hasArray()) {
+            UnsafeHelper.memMoveFromAddressToByte(address, buffer.array(), buffer.arrayOffset() + position, count);
+        } else if (buffer.isDirect() && !buffer.isReadOnly()) {
+            UnsafeHelper.memMove(address, UnsafeHelper.getBufferAddress(buffer) + position, count);
+        } else {
+            for (int i = 0; i < count; ++i)
+                buffer.put(position + i, getByteAt(i));
+        }
+        ((Buffer) buffer).position(position + count);
+    }
+
+    @Override
+    public int hashCode() {
+        if ((hashCode & 0x40000000) != 0)
+            hashCode = (int) BinaryArrayHelper.xxHash64(null, address, count) & 0x3FFFFFFF;
+        return hashCode;
+    }
+
+    public boolean equals(DirectBinaryArray another) {
+        if (count != another.count)
+            return false;
+        int words = count >>> 3;
+        for (int i = 0; i < words; ++i)
+            if (UnsafeHelper.getLong(address + (i << 3)) != UnsafeHelper.getLong(another.address + (i << 3)))
+                return false;
+        for (int i = words << 3; i < count; ++i)
+            if (getByteAt(i) != another.getByteAt(i))
+                return false;
+        return true;
+    }
+
+    public boolean equals(BinaryArray another) {
+        if (count != another.getCount())
+            return false;
+        int words = count >>> 3;
+        for (int i = 0; i < words; ++i)
+            if (UnsafeHelper.getLong(address + (i << 3)) != another.data[i])
+                return false;
+        for (int i = words << 3; i < count; ++i)
+            if (getByteAt(i) != another.getByteAt(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(BinaryConvertibleReadOnly another) {
+        return equals((BinaryIdentifierReadOnly) another);
+    }
+
+    @Override
+    public boolean equals(BinaryIdentifierReadOnly another) {
+        return equals((BinaryArrayReadOnly) another);
+    }
+
+    /**
+     * Compare bytes of this array with bytes of any array (so equality with BinaryArraySlice is symmetric).
+     * @param another Another array.
+     * @return True if arrays have the same bytes.
+     */
+    public boolean equals(BinaryArrayReadOnly another) {
+        if (another instanceof DirectBinaryArray)
+            return equals((DirectBinaryArray) another);
+        if (another instanceof BinaryArray)
+            return equals((BinaryArray) another);
+        if (count != another.size())
+            return false;
+        for (int i = 0; i < count; ++i)
+            if (get(i) != another.get(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof BinaryArrayReadOnly && equals((BinaryArrayReadOnly) that);
+    }
+
+    @Override
+    public String toString(boolean isASCII) {
+        StringBuilder builder = new StringBuilder();
+        if (isASCII) {
+            for (int i = 0; i < count; ++i)
+                builder.append((char) getByteAt(i));
+        } else {
+            for (int i = 0; i < count; i += 2)
+                builder.append((char) UnsafeHelper.getShort(address + i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toString(false);
+    }
+
+    @Override
+    public void getChars(CharEncoding charset, Appendable str) {
+        getChars(charset, str, 0);
+    }
+
+    @Override
+    public void getChars(CharEncoding charset, Appendable str, int offset) {
+        try {
+            if (charset == CharEncoding.ASCII) {
+                for (int i = offset; i < count; ++i) str.append((char) getByteAt(i));
+            } else if (charset == CharEncoding.HEX) {
+                for (int i = offset; i < count; ++i) {
+                    int v = getByteAt(i) & 0xFF;
+                    str.append(HEX_DIGITS_UPPER[v >>> 4]);
+                    str.append(HEX_DIGITS_UPPER[v & 0x0F]);
+                }
+            } else {
+                for (int i = offset; i < count; i += 2) {
+                    str.append((char) UnsafeHelper.getShort(address + i));
+                }
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public String toString(CharEncoding charset, int offset) {
+        StringBuilder builder = new StringBuilder();
+        getChars(charset, builder, offset);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString(CharEncoding charset) {
+        return toString(charset, 0);
+    }
+}
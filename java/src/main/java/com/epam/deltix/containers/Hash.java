@@ -343,6 +343,35 @@ public class Hash {
         return finalize(hash);
     }
 
+    /**
+     * Calculate xxHash64 of single long (the same as xxHash64 of 8 bytes of this long).
+     * @param value Value to hash.
+     * @return Hash of value.
+     */
+    public static long xxHash64(long value) {
+        long hash = 257 + P5 + 8;
+        long k1 = value * P2;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= P1;
+        hash ^= k1;
+        hash = Long.rotateLeft(hash, 27) * P1 + P4;
+        return finalize(hash);
+    }
+
+    /**
+     * Murmur3 64-bit finalizer. Every bit of value affects every bit of result.
+     * @param value Value to mix.
+     * @return Mixed value.
+     */
+    public static long fmix64(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
     private static long finalize(long hash) {
         hash ^= hash >>> 33;
         hash *= P2;
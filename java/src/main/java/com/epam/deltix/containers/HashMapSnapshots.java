@@ -0,0 +1,320 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.HashStrategy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Utils for snapshots of primitive hash maps.
+ * Snapshot is header followed by internal arrays of hashmap (first, next, keys, values) in little-endian order,
+ * so hashmap is saved and restored by bulk copy without rehashing.
+ */
+public final class HashMapSnapshots {
+    /**
+     * Magic number at the beginning of snapshot.
+     */
+    public static final long MAGIC = 0x31504D4853584944L;
+    /**
+     * Size of snapshot header in bytes.
+     */
+    public static final int HEADER_SIZE = 48;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int CHUNK_BITS = 30;
+    private static final String[] TYPE_NAMES = {"Byte", "Char", "Short", "Int", "Long", "Float", "Double", "Bool", "DecimalLong"};
+
+    private HashMapSnapshots() {
+    }
+
+    /**
+     * Header of snapshot.
+     */
+    public static final class Header {
+        public int keyType;
+        public int valueType;
+        public int hashStrategy;
+        public int capacity;
+        public int count;
+        public int head;
+        public int bucketCount;
+        public long defaultValue;
+
+        /**
+         * Create header of snapshot.
+         *
+         * @param keyType      Name of key type (like "Long").
+         * @param valueType    Name of value type.
+         * @param hashStrategy Strategy of key mixing. Only predefined strategies can be restored automatically.
+         * @param capacity     Capacity of hashmap.
+         * @param count        Number of elements.
+         * @param head         Head of list of free places.
+         * @param bucketCount  Number of buckets.
+         * @param defaultValue Raw bits of default value.
+         */
+        public Header(String keyType, String valueType, HashStrategy hashStrategy, int capacity, int count, int head,
+                      int bucketCount, long defaultValue) {
+            this.keyType = typeCode(keyType);
+            this.valueType = typeCode(valueType);
+            this.hashStrategy = hashStrategyCode(hashStrategy);
+            this.capacity = capacity;
+            this.count = count;
+            this.head = head;
+            this.bucketCount = bucketCount;
+            this.defaultValue = defaultValue;
+        }
+
+        private Header() {
+        }
+
+        /**
+         * Read header from current position of channel and check that it was written by hashmap with given types.
+         *
+         * @param channel   Channel to read.
+         * @param keyType   Expected name of key type.
+         * @param valueType Expected name of value type.
+         * @return Header.
+         * @throws IOException If channel can't be read or doesn't contain snapshot of such hashmap.
+         */
+        public static Header read(FileChannel channel, String keyType, String valueType) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer);
+            buffer.flip();
+            if (buffer.getLong() != MAGIC) throw new IOException("Channel doesn't contain snapshot of hashmap");
+            Header header = new Header();
+            header.keyType = buffer.getInt();
+            header.valueType = buffer.getInt();
+            header.hashStrategy = buffer.getInt();
+            header.capacity = buffer.getInt();
+            header.count = buffer.getInt();
+            header.head = buffer.getInt();
+            header.bucketCount = buffer.getInt();
+            header.defaultValue = buffer.getLong();
+            if (!isTypeCode(header.keyType) || !isTypeCode(header.valueType))
+                throw new IOException("Snapshot has unknown key or value type");
+            if (header.keyType != typeCode(keyType) || header.valueType != typeCode(valueType)) {
+                throw new IOException("Snapshot was written by hashmap from " + TYPE_NAMES[header.keyType] + " to "
+                        + TYPE_NAMES[header.valueType]);
+            }
+            if (header.capacity < 0 || header.count < 0 || header.count > header.capacity || header.head < 0
+                    || header.head > header.capacity || header.bucketCount <= 0
+                    || (header.bucketCount & (header.bucketCount - 1)) != 0) {
+                throw new IOException("Snapshot is corrupted");
+            }
+            return header;
+        }
+
+        /**
+         * Write header to current position of channel.
+         *
+         * @param channel Channel to write.
+         * @throws IOException If channel can't be written.
+         */
+        public void write(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putLong(MAGIC).putInt(keyType).putInt(valueType).putInt(hashStrategy).putInt(capacity)
+                    .putInt(count).putInt(head).putInt(bucketCount).putLong(defaultValue);
+            buffer.position(HEADER_SIZE);
+            buffer.flip();
+            writeFully(channel, buffer);
+        }
+
+        /**
+         * Return strategy of key mixing saved in header.
+         *
+         * @return Strategy of key mixing.
+         * @throws IOException If hashmap used custom strategy.
+         */
+        public HashStrategy getHashStrategy() throws IOException {
+            switch (hashStrategy) {
+                case 0: return HashStrategy.IDENTITY;
+                case 1: return HashStrategy.MURMUR3;
+                case 2: return HashStrategy.XXHASH;
+                default: throw new IOException("Snapshot was written with custom hash strategy, pass it explicitly");
+            }
+        }
+    }
+
+    static int typeCode(String typeName) {
+        for (int i = 0; i < TYPE_NAMES.length; ++i) {
+            if (TYPE_NAMES[i].equals(typeName)) return i;
+        }
+        throw new IllegalArgumentException("Type " + typeName + " is not supported by snapshots");
+    }
+
+    static boolean isTypeCode(int code) {
+        return code >= 0 && code < TYPE_NAMES.length;
+    }
+
+    static int hashStrategyCode(HashStrategy hashStrategy) {
+        if (hashStrategy == HashStrategy.IDENTITY) return 0;
+        if (hashStrategy == HashStrategy.MURMUR3) return 1;
+        if (hashStrategy == HashStrategy.XXHASH) return 2;
+        return -1;
+    }
+
+    private interface BulkCopy {
+        void copy(ByteBuffer buffer, int offset, int count);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException("Unexpected end of snapshot");
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static void write(FileChannel channel, int length, int elementSize, BulkCopy copy) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int step = BUFFER_SIZE / elementSize;
+        for (int offset = 0; offset < length; offset += step) {
+            int count = Math.min(step, length - offset);
+            buffer.clear();
+            copy.copy(buffer, offset, count);
+            buffer.limit(count * elementSize);
+            writeFully(channel, buffer);
+        }
+    }
+
+    private static void read(FileChannel channel, int length, int elementSize, BulkCopy copy) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int step = BUFFER_SIZE / elementSize;
+        for (int offset = 0; offset < length; offset += step) {
+            int count = Math.min(step, length - offset);
+            buffer.clear();
+            buffer.limit(count * elementSize);
+            readFully(channel, buffer);
+            buffer.flip();
+            copy.copy(buffer, offset, count);
+        }
+    }
+
+    public static void write(FileChannel channel, byte[] array, int length) throws IOException {
+        write(channel, length, 1, (buffer, offset, count) -> buffer.put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, byte[] array, int length) throws IOException {
+        read(channel, length, 1, (buffer, offset, count) -> buffer.get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, boolean[] array, int length) throws IOException {
+        write(channel, length, 1, (buffer, offset, count) -> {
+            for (int i = 0; i < count; ++i) buffer.put(i, array[offset + i] ? (byte) 1 : (byte) 0);
+        });
+    }
+
+    public static void read(FileChannel channel, boolean[] array, int length) throws IOException {
+        read(channel, length, 1, (buffer, offset, count) -> {
+            for (int i = 0; i < count; ++i) array[offset + i] = buffer.get(i) != 0;
+        });
+    }
+
+    public static void write(FileChannel channel, char[] array, int length) throws IOException {
+        write(channel, length, 2, (buffer, offset, count) -> buffer.asCharBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, char[] array, int length) throws IOException {
+        read(channel, length, 2, (buffer, offset, count) -> buffer.asCharBuffer().get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, short[] array, int length) throws IOException {
+        write(channel, length, 2, (buffer, offset, count) -> buffer.asShortBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, short[] array, int length) throws IOException {
+        read(channel, length, 2, (buffer, offset, count) -> buffer.asShortBuffer().get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, int[] array, int length) throws IOException {
+        write(channel, length, 4, (buffer, offset, count) -> buffer.asIntBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, int[] array, int length) throws IOException {
+        read(channel, length, 4, (buffer, offset, count) -> buffer.asIntBuffer().get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, float[] array, int length) throws IOException {
+        write(channel, length, 4, (buffer, offset, count) -> buffer.asFloatBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, float[] array, int length) throws IOException {
+        read(channel, length, 4, (buffer, offset, count) -> buffer.asFloatBuffer().get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, long[] array, int length) throws IOException {
+        write(channel, length, 8, (buffer, offset, count) -> buffer.asLongBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, long[] array, int length) throws IOException {
+        read(channel, length, 8, (buffer, offset, count) -> buffer.asLongBuffer().get(array, offset, count));
+    }
+
+    public static void write(FileChannel channel, double[] array, int length) throws IOException {
+        write(channel, length, 8, (buffer, offset, count) -> buffer.asDoubleBuffer().put(array, offset, count));
+    }
+
+    public static void read(FileChannel channel, double[] array, int length) throws IOException {
+        read(channel, length, 8, (buffer, offset, count) -> buffer.asDoubleBuffer().get(array, offset, count));
+    }
+
+    /**
+     * Read-only memory-mapped part of file. Region is mapped by chunks of 1GB, so it can be larger than 2GB.
+     */
+    public static final class MappedRegion {
+        private final ByteBuffer[] chunks;
+
+        /**
+         * Map part of file.
+         *
+         * @param channel  Channel of file.
+         * @param position Start of region in file.
+         * @param size     Size of region in bytes.
+         * @throws IOException If file can't be mapped.
+         */
+        public MappedRegion(FileChannel channel, long position, long size) throws IOException {
+            chunks = new ByteBuffer[(int) ((size + (1L << CHUNK_BITS) - 1) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; ++i) {
+                long start = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + start,
+                        Math.min(1L << CHUNK_BITS, size - start)).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        public int getInt(long index) {
+            long offset = index << 2;
+            return chunks[(int) (offset >>> CHUNK_BITS)].getInt((int) (offset & ((1L << CHUNK_BITS) - 1)));
+        }
+
+        public long getLong(long index) {
+            long offset = index << 3;
+            return chunks[(int) (offset >>> CHUNK_BITS)].getLong((int) (offset & ((1L << CHUNK_BITS) - 1)));
+        }
+
+        public double getDouble(long index) {
+            long offset = index << 3;
+            return chunks[(int) (offset >>> CHUNK_BITS)].getDouble((int) (offset & ((1L << CHUNK_BITS) - 1)));
+        }
+    }
+}
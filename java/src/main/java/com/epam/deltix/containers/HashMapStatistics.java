@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.LogProcessor;
+import com.epam.deltix.containers.interfaces.Loggable;
+import com.epam.deltix.containers.interfaces.Severity;
+
+/**
+ * Statistics of chained hashmap: chain lengths, histogram of probes per lookup and resize telemetry.
+ * Chain lengths are computed on every call of getStatistics() of hashmap. Probes and resizes are collected
+ * only if system property "com.epam.deltix.containers.hashMapStatistics" is true, otherwise collecting code
+ * is removed by JIT.
+ */
+public class HashMapStatistics implements Loggable {
+    /**
+     * True if probes and resizes are collected.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("com.epam.deltix.containers.hashMapStatistics");
+
+    /**
+     * Size of histogram of probes. Last element counts lookups with PROBE_HISTOGRAM_SIZE - 1 or more probes.
+     */
+    public static final int PROBE_HISTOGRAM_SIZE = 17;
+
+    private final long[] probeHistogram = new long[PROBE_HISTOGRAM_SIZE];
+    private long lookupCount;
+    private long probeCount;
+    private int resizeCount;
+    private long lastResizeNanos;
+    private long totalResizeNanos;
+
+    private int bucketCount;
+    private int usedBucketCount;
+    private int elementCount;
+    private int maxChainLength;
+
+    private LogProcessor logger;
+    private Severity minSeverity = Severity.WARNING;
+    private int maxChainLengthToWarn = 16;
+
+    /**
+     * Record lookup of key (walk of chain by get, set, remove, locate and other operations with key).
+     *
+     * @param probes Number of compared keys.
+     */
+    public void recordLookup(int probes) {
+        probeHistogram[Math.min(probes, PROBE_HISTOGRAM_SIZE - 1)]++;
+        probeCount += probes;
+        lookupCount++;
+    }
+
+    /**
+     * Record resize of hashmap.
+     *
+     * @param nanos Duration of resize in nanoseconds.
+     */
+    public void recordResize(long nanos) {
+        resizeCount++;
+        lastResizeNanos = nanos;
+        totalResizeNanos += nanos;
+    }
+
+    /**
+     * Start recording of chains. Previous chain statistics is cleared.
+     *
+     * @param bucketCount Number of buckets in hashmap.
+     */
+    public void beginChains(int bucketCount) {
+        this.bucketCount = bucketCount;
+        usedBucketCount = 0;
+        elementCount = 0;
+        maxChainLength = 0;
+    }
+
+    /**
+     * Record chain of bucket.
+     *
+     * @param length Number of elements in chain.
+     */
+    public void recordChain(int length) {
+        if (length == 0) return;
+        usedBucketCount++;
+        elementCount += length;
+        maxChainLength = Math.max(maxChainLength, length);
+    }
+
+    /**
+     * Clear histogram of probes and resize telemetry.
+     */
+    public void reset() {
+        for (int i = 0; i < PROBE_HISTOGRAM_SIZE; ++i) probeHistogram[i] = 0;
+        lookupCount = 0;
+        probeCount = 0;
+        resizeCount = 0;
+        lastResizeNanos = 0;
+        totalResizeNanos = 0;
+    }
+
+    /**
+     * Return number of buckets.
+     *
+     * @return Number of buckets.
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Return number of non-empty buckets.
+     *
+     * @return Number of non-empty buckets.
+     */
+    public int getUsedBucketCount() {
+        return usedBucketCount;
+    }
+
+    /**
+     * Return maximal chain length.
+     *
+     * @return Maximal chain length.
+     */
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    /**
+     * Return average length of non-empty chain.
+     *
+     * @return Average length of non-empty chain.
+     */
+    public double getAverageChainLength() {
+        return usedBucketCount == 0 ? 0 : (double) elementCount / usedBucketCount;
+    }
+
+    /**
+     * Return number of lookups with given number of probes.
+     *
+     * @param probes Number of probes (values greater than PROBE_HISTOGRAM_SIZE - 1 are counted together).
+     * @return Number of lookups.
+     */
+    public long getLookupCount(int probes) {
+        return probeHistogram[Math.min(probes, PROBE_HISTOGRAM_SIZE - 1)];
+    }
+
+    /**
+     * Return number of recorded lookups.
+     *
+     * @return Number of recorded lookups.
+     */
+    public long getLookupCount() {
+        return lookupCount;
+    }
+
+    /**
+     * Return average number of probes per lookup.
+     *
+     * @return Average number of probes per lookup.
+     */
+    public double getAverageProbeCount() {
+        return lookupCount == 0 ? 0 : (double) probeCount / lookupCount;
+    }
+
+    /**
+     * Return number of resizes.
+     *
+     * @return Number of resizes.
+     */
+    public int getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Return duration of last resize in nanoseconds.
+     *
+     * @return Duration of last resize in nanoseconds.
+     */
+    public long getLastResizeNanos() {
+        return lastResizeNanos;
+    }
+
+    /**
+     * Return total duration of resizes in nanoseconds.
+     *
+     * @return Total duration of resizes in nanoseconds.
+     */
+    public long getTotalResizeNanos() {
+        return totalResizeNanos;
+    }
+
+    /**
+     * Set maximal chain length which is logged as Info. Longer chains are logged as Warning.
+     *
+     * @param maxChainLengthToWarn Maximal chain length.
+     */
+    public void setMaxChainLengthToWarn(int maxChainLengthToWarn) {
+        this.maxChainLengthToWarn = maxChainLengthToWarn;
+    }
+
+    @Override
+    public void setLogger(LogProcessor logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void setMinimalSeverityToLog(Severity minSeverity) {
+        this.minSeverity = minSeverity;
+    }
+
+    @Override
+    public Severity getMinimalSeverityToLog() {
+        return minSeverity;
+    }
+
+    /**
+     * Send statistics to logger. Statistics is sent as Warning if maximal chain length exceeds limit and
+     * as Info otherwise.
+     *
+     * @param sender Hashmap which statistics is sent.
+     */
+    public void log(Object sender) {
+        if (logger == null) return;
+        Severity severity = maxChainLength > maxChainLengthToWarn ? Severity.WARNING : Severity.INFO;
+        if (severity.compareTo(minSeverity) < 0) return;
+        logger.onLogEvent(sender, severity, null, toString());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("buckets=").append(bucketCount)
+                .append(" used=").append(usedBucketCount)
+                .append(" maxChain=").append(maxChainLength)
+                .append(" avgChain=").append(String.format("%.2f", getAverageChainLength()));
+        if (ENABLED) {
+            builder.append(" lookups=").append(lookupCount)
+                    .append(" avgProbes=").append(String.format("%.2f", getAverageProbeCount()))
+                    .append(" probes=[");
+            for (int i = 0; i < PROBE_HISTOGRAM_SIZE; ++i) {
+                if (probeHistogram[i] == 0) continue;
+                builder.append(' ').append(i == PROBE_HISTOGRAM_SIZE - 1 ? (i + "+") : String.valueOf(i))
+                        .append('=').append(probeHistogram[i]);
+            }
+            builder.append(" ] resizes=").append(resizeCount)
+                    .append(" lastResizeNanos=").append(lastResizeNanos)
+                    .append(" totalResizeNanos=").append(totalResizeNanos);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.*;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only binary array over memory-mapped region of file. Layout of bytes, typed accessors, equality and hash code
+ * are the same as in {@link BinaryArray}, so parsers of BinaryConvertibleReadOnly work on mapped data without copying.
+ * <p>
+ * Region is mapped by segments of 1 GB, so files larger than 2 GB are supported: use {@link #length()} and
+ * accessors with long offsets for them (methods with int offsets and {@link #size()} address first 2 GB,
+ * size throws ArithmeticException for longer array). Every segment is mapped with 8 extra bytes of the next one,
+ * so typed value at any offset is read from one segment by one memory access.
+ * <p>
+ * {@link #slice(long, long)} returns view of part of array without copying. Segments are unmapped by garbage
+ * collector when array and all its slices are unreachable. Offsets are checked: reading outside of mapping
+ * would crash JVM.
+ */
+public class MappedBinaryArray implements BinaryConvertibleReadOnly {
+    static final int DEFAULT_SEGMENT_SHIFT = 30;
+    private static final int OVERLAP = 8;
+
+    // Mapped buffers are kept to keep memory mapped while array or its slices are used.
+    private final MappedByteBuffer[] segments;
+    private final long[] addresses;
+    private final int segmentShift;
+    private final long offset;
+    private final long length;
+    private int hashCode = 0x40000000;
+
+    private MappedBinaryArray(MappedByteBuffer[] segments, long[] addresses, int segmentShift, long offset, long length) {
+        this.segments = segments;
+        this.addresses = addresses;
+        this.segmentShift = segmentShift;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Map whole file read-only. Mapping stays valid after file is closed.
+     * @param path Path of file.
+     * @return Array over mapped file.
+     * @throws IOException If file can't be opened or mapped.
+     */
+    public static MappedBinaryArray map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return map(channel);
+        }
+    }
+
+    /**
+     * Map whole file read-only. Mapping stays valid after channel is closed.
+     * @param channel Channel of file.
+     * @return Array over mapped file.
+     * @throws IOException If file can't be mapped.
+     */
+    public static MappedBinaryArray map(FileChannel channel) throws IOException {
+        return map(channel, 0, channel.size());
+    }
+
+    /**
+     * Map region of file read-only. Mapping stays valid after channel is closed.
+     * @param channel Channel of file.
+     * @param position Position of region in file.
+     * @param length Length of region in bytes.
+     * @return Array over mapped region.
+     * @throws IOException If file can't be mapped.
+     */
+    public static MappedBinaryArray map(FileChannel channel, long position, long length) throws IOException {
+        return map(channel, position, length, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    static MappedBinaryArray map(FileChannel channel, long position, long length, int segmentShift) throws IOException {
+        if (position < 0 || length < 0 || position + length > channel.size())
+            throw new IllegalArgumentException("Region [" + position + ", " + (position + length) + ") is out of file of size " + channel.size());
+        long segmentSize = 1L << segmentShift;
+        int count = (int) ((length + segmentSize - 1) >>> segmentShift);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        long[] addresses = new long[count];
+        for (int i = 0; i < count; ++i) {
+            long start = (long) i << segmentShift;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + start, Math.min(segmentSize + OVERLAP, length - start));
+            addresses[i] = UnsafeHelper.getBufferAddress(segments[i]);
+        }
+        return new MappedBinaryArray(segments, addresses, segmentShift, 0, length);
+    }
+
+    /**
+     * Return view of part of this array. Bytes are not copied.
+     * @param offset Offset of view in this array.
+     * @param length Length of view in bytes.
+     * @return View of part of this array.
+     */
+    public MappedBinaryArray slice(long offset, long length) {
+        if (offset < 0 || length < 0 || offset > this.length - length)
+            throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") is out of length " + this.length);
+        return new MappedBinaryArray(segments, addresses, segmentShift, this.offset + offset, length);
+    }
+
+    /**
+     * Return length of array in bytes.
+     * @return Length of array.
+     */
+    public long length() {
+        return length;
+    }
+
+    private long address(long index, int size) {
+        if (index < 0 || index > length - size)
+            throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + size) + ") is out of length " + length);
+        long position = offset + index;
+        return addresses[(int) (position >>> segmentShift)] + (position & ((1L << segmentShift) - 1));
+    }
+
+    /**
+     * Return number of bytes of this array available in memory of one segment from index.
+     */
+    private int available(long index) {
+        long position = offset + index;
+        int segment = (int) (position >>> segmentShift);
+        return (int) Math.min(segments[segment].capacity() - (position - ((long) segment << segmentShift)), length - index);
+    }
+
+    public byte getByteAt(long index) {
+        return UnsafeHelper.getByte(address(index, 1));
+    }
+
+    public boolean toBoolean(long offset) {
+        return getByteAt(offset) == 1;
+    }
+
+    public char toChar(long offset) {
+        return (char) toInt16(offset);
+    }
+
+    public short toInt16(long offset) {
+        return UnsafeHelper.getShort(address(offset, 2));
+    }
+
+    public int toInt32(long offset) {
+        return UnsafeHelper.getInt(address(offset, 4));
+    }
+
+    public long toInt64(long offset) {
+        return UnsafeHelper.getLong(address(offset, 8));
+    }
+
+    public float toSingle(long offset) {
+        return Float.intBitsToFloat(toInt32(offset));
+    }
+
+    public double toDouble(long offset) {
+        return Double.longBitsToDouble(toInt64(offset));
+    }
+
+    /**
+     * Copy count bytes from this array started from source index to byte array.
+     * @param sourceIndex Source index.
+     * @param destination Destination array.
+     * @param destinationIndex Destination index.
+     * @param count Number of bytes to copy.
+     */
+    public void toByteArray(long sourceIndex, byte[] destination, int destinationIndex, int count) {
+        if (count == 0) return;
+        address(sourceIndex, count);
+        while (count > 0) {
+            int chunk = Math.min(count, available(sourceIndex));
+            UnsafeHelper.memMoveFromAddressToByte(address(sourceIndex, chunk), destination, destinationIndex, chunk);
+            sourceIndex += chunk;
+            destinationIndex += chunk;
+            count -= chunk;
+        }
+    }
+
+    @Override
+    public void toByteArray(int sourceIndex, byte[] destination, int destinationIndex, int count) {
+        toByteArray((long) sourceIndex, destination, destinationIndex, count);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        byte[] temp = new byte[size()];
+        toByteArray(0L, temp, 0, temp.length);
+        return temp;
+    }
+
+    @Override
+    public void getBytes(byte[] buffer) {
+        toByteArray(0L, buffer, 0, size());
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int size) {
+        toByteArray((long) srcOffset, buffer, 0, size);
+    }
+
+    @Override
+    public void getBytes(byte[] buffer, int srcOffset, int dstOffset, int size) {
+        toByteArray((long) srcOffset, buffer, dstOffset, size);
+    }
+
+    /**
+     * Replace content of destination with bytes of this array. BinaryArray and DirectBinaryArray
+     * copy every segment by one memory move.
+     * @param destination Destination array.
+     */
+    @Override
+    public void copyTo(BinaryArrayReadWrite destination) {
+        destination.clear();
+        int size = size();
+        for (long index = 0; index < size; ) {
+            int chunk = available(index);
+            long position = offset + index;
+            int segment = (int) (position >>> segmentShift);
+            ByteBuffer buffer = segments[segment].duplicate();
+            int start = (int) (position - ((long) segment << segmentShift));
+            ((Buffer) buffer).limit(start + chunk);
+            ((Buffer) buffer).position(start);
+            if (destination instanceof BinaryArray) {
+                ((BinaryArray) destination).append(buffer);
+            } else if (destination instanceof DirectBinaryArray) {
+                ((DirectBinaryArray) destination).append(buffer);
+            } else {
+                for (int i = 0; i < chunk; ++i) destination.append(buffer.get());
+            }
+            index += chunk;
+        }
+    }
+
+    @Override
+    public MappedBinaryArray clone() {
+        return new MappedBinaryArray(segments, addresses, segmentShift, offset, length);
+    }
+
+    @Override
+    public byte get(int index) {
+        return getByteAt((long) index);
+    }
+
+    @Override
+    public byte getByteAt(int index) {
+        return getByteAt((long) index);
+    }
+
+    /**
+     * Return size of array.
+     * @return Size of array.
+     * @throws ArithmeticException If array is longer than Integer.MAX_VALUE bytes (use {@link #length()}).
+     */
+    @Override
+    public int size() {
+        return Math.toIntExact(length);
+    }
+
+    @Override
+    public int getCount() {
+        return size();
+    }
+
+    @Override
+    public int capacity() {
+        return size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return size();
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    @Override
+    public boolean toBoolean() {
+        return toBoolean(0L);
+    }
+
+    @Override
+    public byte toByte() {
+        return getByteAt(0L);
+    }
+
+    @Override
+    public char toChar() {
+        return toChar(0L);
+    }
+
+    @Override
+    public double toDouble() {
+        return toDouble(0L);
+    }
+
+    @Override
+    public short toInt16() {
+        return toInt16(0L);
+    }
+
+    @Override
+    public int toInt32() {
+        return toInt32(0L);
+    }
+
+    @Override
+    public long toInt64() {
+        return toInt64(0L);
+    }
+
+    @Override
+    public float toSingle() {
+        return toSingle(0L);
+    }
+
+    @Override
+    public boolean toBoolean(int offset) {
+        return toBoolean((long) offset);
+    }
+
+    @Override
+    public byte toByte(int offset) {
+        return getByteAt((long) offset);
+    }
+
+    @Override
+    public char toChar(int offset) {
+        return toChar((long) offset);
+    }
+
+    @Override
+    public double toDouble(int offset) {
+        return toDouble((long) offset);
+    }
+
+    @Override
+    public short toInt16(int offset) {
+        return toInt16((long) offset);
+    }
+
+    @Override
+    public int toInt32(int offset) {
+        return toInt32((long) offset);
+    }
+
+    @Override
+    public long toInt64(int offset) {
+        return toInt64((long) offset);
+    }
+
+    @Override
+    public float toSingle(int offset) {
+        return toSingle((long) offset);
+    }
+
+    @Override
+    public long toLong() {
+        return toInt64(0L);
+    }
+
+    @Override
+    public long toLong(int offset) {
+        return toInt64((long) offset);
+    }
+
+    @Override
+    public void toUTF8(byte[] utf8) {
+        toUTF8(utf8, 0);
+    }
+
+    @Override
+    public void toUTF8(byte[] utf8, int offset) {
+        toByteArray((long) offset, utf8, 0, size() - offset);
+    }
+
+    @Override
+    public void toUUID(com.epam.deltix.containers.interfaces.UUID uuid) {
+        toUUID(uuid, 0);
+    }
+
+    @Override
+    public void toUUID(com.epam.deltix.containers.interfaces.UUID uuid, int offset) {
+        uuid.setMSB(toInt64((long) offset));
+        uuid.setLSB(toInt64((long) offset + 8));
+    }
+
+    @Override
+    public UUID toUUID() {
+        UUID uuid = new UUID();
+        toUUID(uuid);
+        return uuid;
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str) {
+        toMutableString(str, 0);
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str, int offset) {
+        toMutableString(str, offset, size() - offset);
+    }
+
+    @Override
+    public void toMutableString(com.epam.deltix.containers.interfaces.MutableString str, int offset, int length) {
+        str.clear();
+        for (int i = offset; i + 1 < offset + length; i += 2)
+            str.append(toChar((long) i));
+    }
+
+    @Override
+    public MutableString toMutableString() {
+        MutableString string = new MutableString();
+        toMutableString(string);
+        return string;
+    }
+
+    @Override
+    public boolean equals(BinaryConvertibleReadOnly another) {
+        return equals((BinaryIdentifierReadOnly) another);
+    }
+
+    @Override
+    public boolean equals(BinaryIdentifierReadOnly another) {
+        return equals((BinaryArrayReadOnly) another);
+    }
+
+    /**
+     * Compare bytes of this array with bytes of any array (so equality with BinaryArraySlice is symmetric).
+     * @param another Another array.
+     * @return True if arrays have the same bytes.
+     */
+    public boolean equals(BinaryArrayReadOnly another) {
+        if (another instanceof MappedBinaryArray) {
+            MappedBinaryArray array = (MappedBinaryArray) another;
+            if (length != array.length)
+                return false;
+            for (long i = 0; i < length; ++i)
+                if (getByteAt(i) != array.getByteAt(i))
+                    return false;
+            return true;
+        }
+        if (length != another.size())
+            return false;
+        for (int i = 0; i < length; ++i)
+            if (getByteAt((long) i) != another.get(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        return that instanceof BinaryArrayReadOnly && equals((BinaryArrayReadOnly) that);
+    }
+
+    /**
+     * Return the same hash code as BinaryArray with the same bytes. Array within one segment is hashed in place,
+     * array crossing border of segments is copied to temporary BinaryArray.
+     */
+    @Override
+    public int hashCode() {
+        if ((hashCode & 0x40000000) != 0) {
+            int size = size();
+            long hash;
+            if (size == 0) {
+                hash = 0;
+            } else if (available(0) == size) {
+                hash = BinaryArrayHelper.xxHash64(null, address(0, size), size);
+            } else {
+                BinaryArray copy = new BinaryArray(size);
+                copyTo(copy);
+                hash = copy.hashCode();
+            }
+            hashCode = (int) hash & 0x3FFFFFFF;
+        }
+        return hashCode;
+    }
+
+    @Override
+    public String toString(boolean isASCII) {
+        StringBuilder builder = new StringBuilder();
+        int size = size();
+        if (isASCII) {
+            for (int i = 0; i < size; ++i)
+                builder.append((char) getByteAt((long) i));
+        } else {
+            for (int i = 0; i + 1 < size; i += 2)
+                builder.append(toChar((long) i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toString(false);
+    }
+}
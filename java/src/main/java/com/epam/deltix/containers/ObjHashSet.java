@@ -16,6 +16,9 @@
  */
 package com.epam.deltix.containers;
 
+import com.epam.deltix.containers.generated.ObjConsumer;
+import com.epam.deltix.containers.generated.ObjToBoolFunction;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -29,16 +32,34 @@ public class ObjHashSet<K> implements Iterable<K> {
      * Pointer to empty element.
      */
     public static final int NO_ELEMENT = -1;
+    private static final int MIGRATION_STEP = 4;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Bits of state. Zero state means flat arrays, any mode moves elements and buckets to pages.
+    private static final int INCREMENTAL_RESIZE = 1;
+    private static final int GENERATION_CLEAR = 2;
+    private static final int RESIZING = 4;
 
     ArrayList<K> keys;
     int[] first;
     int[] next;
 
+    Object[][] keyPages;
+    int[][] nextPages;
+    int[][] firstPages;
+
+    int mask;
     boolean allocedPlaceWasFilled = true;
     int head;
+    int freeTop;
+    int generation;
     int capacity;
     int count = 0;
     long reservedSpace = NO_ELEMENT;
+    int state;
+    int oldMask;
+    int migrated;
 
     /**
      * Get reserved by locateOrReserve empty space.
@@ -51,7 +72,301 @@ public class ObjHashSet<K> implements Iterable<K> {
 
 
     int hashFunction(K value) {
-        return Math.abs(value.hashCode() % capacity);
+        int hash = value.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    static int getBucketCount(int capacity) {
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+
+    static int getPageCount(int length) {
+        return (length + PAGE_MASK) >>> PAGE_SHIFT;
+    }
+
+    @SuppressWarnings("unchecked")
+    K loadKey(int place) {
+        return state == 0 ? keys.get(place) : (K) keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK];
+    }
+
+    void storeKey(int place, K key) {
+        if (state == 0) {
+            keys.set(place, key);
+        } else {
+            keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = key;
+        }
+    }
+
+    int loadNext(int place) {
+        return state == 0 ? next[place] : nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK];
+    }
+
+    void storeNext(int place, int link) {
+        if (state == 0) {
+            next[place] = link;
+        } else {
+            nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = link;
+        }
+    }
+
+    int loadHead(int bucket) {
+        return state == 0 ? first[bucket] : pagedHead(bucket);
+    }
+
+    void storeHead(int bucket, int place) {
+        if (state == 0) {
+            first[bucket] = place;
+        } else {
+            setPagedHead(bucket, place);
+        }
+    }
+
+    int pagedHead(int bucket) {
+        // Page of buckets holds pairs of head of chain and generation in which it was written.
+        int[] page = firstPages[bucket >>> PAGE_SHIFT];
+        int index = (bucket & PAGE_MASK) << 1;
+        return page[index + 1] == generation ? page[index] : -1;
+    }
+
+    void setPagedHead(int bucket, int place) {
+        int[] page = firstPages[bucket >>> PAGE_SHIFT];
+        int index = (bucket & PAGE_MASK) << 1;
+        page[index] = place;
+        page[index + 1] = generation;
+    }
+
+    int bucketOf(int hash) {
+        // Bucket of old table which isn't split yet holds elements of all its successors.
+        return (state & RESIZING) != 0 && (hash & oldMask) >= migrated ? hash & oldMask : hash;
+    }
+
+    boolean isBucket(int bucket) {
+        return (state & RESIZING) == 0 || bucket <= oldMask || (bucket & oldMask) < migrated;
+    }
+
+    int takeFreePlace() {
+        int place = head;
+        head = -(next[place] + 1);
+        return place;
+    }
+
+    int takePagedPlace() {
+        int place = head;
+        if (place != freeTop) {
+            head = -(nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] + 1);
+            return place;
+        }
+        // Places from freeTop aren't linked to list of free places, their pages are allocated on first use.
+        head = ++freeTop;
+        int page = place >>> PAGE_SHIFT;
+        if (nextPages[page] == null) {
+            keyPages[page] = new Object[PAGE_SIZE];
+            nextPages[page] = new int[PAGE_SIZE];
+        }
+        return place;
+    }
+
+    void unlink(int bucket, int previous, int place) {
+        if (previous < 0) {
+            storeHead(bucket, loadNext(place));
+        } else {
+            storeNext(previous, loadNext(place));
+        }
+        storeNext(place, -head - 1);
+        head = place;
+        count--;
+    }
+
+    long locatePaged(K key) {
+        int bucket = bucketOf(hashFunction(key));
+        int current = pagedHead(bucket);
+        while (current >= 0) {
+            if (keyPages[current >>> PAGE_SHIFT][current & PAGE_MASK].equals(key)) {
+                return getIterator(bucket, current);
+            }
+            current = nextPages[current >>> PAGE_SHIFT][current & PAGE_MASK];
+        }
+        return NO_ELEMENT;
+    }
+
+    long insertPaged(K key) {
+        if (count == capacity) {
+            rebuild(capacity << 1);
+        }
+        if ((state & RESIZING) != 0) migrate(MIGRATION_STEP);
+        int bucket = bucketOf(hashFunction(key));
+        int place = takePagedPlace();
+        int following = pagedHead(bucket);
+        keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = key;
+        nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = following;
+        setPagedHead(bucket, place);
+        count++;
+        return getIterator(bucket, place);
+    }
+
+    int removePaged(K key) {
+        int bucket = bucketOf(hashFunction(key));
+        int current = pagedHead(bucket);
+        int previous = -1;
+        while (current >= 0) {
+            if (keyPages[current >>> PAGE_SHIFT][current & PAGE_MASK].equals(key)) {
+                if (current == getPlace(reservedSpace)) {
+                    allocedPlaceWasFilled = true;
+                }
+                unlink(bucket, previous, current);
+                return current;
+            }
+            previous = current;
+            current = nextPages[current >>> PAGE_SHIFT][current & PAGE_MASK];
+        }
+        return -1;
+    }
+
+    /**
+     * Split next buckets of old table. Successors of old bucket are bucket + k * (oldMask + 1) of new table,
+     * so bucket is split in place and new table doesn't need other storage.
+     */
+    void migrate(int bucketCount) {
+        int oldBucketCount = oldMask + 1;
+        int end = Math.min(migrated + bucketCount, oldBucketCount);
+        for (; migrated < end; ++migrated) {
+            int current = pagedHead(migrated);
+            for (int bucket = migrated; bucket <= mask; bucket += oldBucketCount) {
+                if (firstPages[bucket >>> PAGE_SHIFT] == null) firstPages[bucket >>> PAGE_SHIFT] = new int[PAGE_SIZE << 1];
+                setPagedHead(bucket, -1);
+            }
+            while (current >= 0) {
+                int[] nextPage = nextPages[current >>> PAGE_SHIFT];
+                int following = nextPage[current & PAGE_MASK];
+                int hash = hashFunction(loadKey(current));
+                nextPage[current & PAGE_MASK] = pagedHead(hash);
+                setPagedHead(hash, current);
+                current = following;
+            }
+        }
+        if (migrated == oldBucketCount) state &= ~RESIZING;
+    }
+
+    void toPages() {
+        int pageCount = getPageCount(capacity);
+        keyPages = new Object[pageCount][];
+        nextPages = new int[pageCount][];
+        for (int page = 0; page < pageCount; ++page) {
+            int length = page == 0 ? Math.min(PAGE_SIZE, capacity) : PAGE_SIZE;
+            keyPages[page] = new Object[length];
+            nextPages[page] = new int[length];
+        }
+        for (int i = 0; i < capacity; ++i) {
+            keyPages[i >>> PAGE_SHIFT][i & PAGE_MASK] = keys.get(i);
+            nextPages[i >>> PAGE_SHIFT][i & PAGE_MASK] = next[i];
+        }
+        pageCount = getPageCount(first.length);
+        firstPages = new int[pageCount][];
+        for (int page = 0; page < pageCount; ++page) {
+            firstPages[page] = new int[Math.min(PAGE_SIZE, first.length) << 1];
+        }
+        for (int i = 0; i < first.length; ++i) {
+            firstPages[i >>> PAGE_SHIFT][(i & PAGE_MASK) << 1] = first[i];
+            firstPages[i >>> PAGE_SHIFT][((i & PAGE_MASK) << 1) + 1] = generation;
+        }
+        keys = null;
+        next = null;
+        first = null;
+    }
+
+    /**
+     * Move elements from pages back to flat arrays. Elements are relinked into buckets of full table,
+     * so pending incremental resize doesn't need to be completed.
+     */
+    void toArrays() {
+        ArrayList<K> newKeys = new ArrayList<K>(capacity);
+        int[] newNext = new int[capacity];
+        int[] newFirst = new int[getBucketCount(capacity)];
+        Arrays.fill(newFirst, -1);
+        for (int i = 0; i < capacity; ++i) {
+            newKeys.add(i < freeTop ? loadKey(i) : null);
+            newNext[i] = i < freeTop ? loadNext(i) : -i - 2;
+        }
+        // Filled places of HashSet aren't marked, so elements are relinked by chains of buckets.
+        int bucketCount = mask + 1;
+        mask = newFirst.length - 1;
+        for (int bucket = 0; bucket < bucketCount; ++bucket) {
+            if (!isBucket(bucket)) continue;
+            for (int current = loadHead(bucket); current >= 0; current = loadNext(current)) {
+                int hash = hashFunction(loadKey(current));
+                newNext[current] = newFirst[hash];
+                newFirst[hash] = current;
+            }
+        }
+        keys = newKeys;
+        next = newNext;
+        first = newFirst;
+        freeTop = capacity;
+        keyPages = null;
+        nextPages = null;
+        firstPages = null;
+    }
+
+    void setMode(int mode) {
+        mode &= INCREMENTAL_RESIZE | GENERATION_CLEAR;
+        if ((state & RESIZING) != 0 && (mode & INCREMENTAL_RESIZE) == 0) migrate(oldMask + 1);
+        if (state == 0 && mode != 0) {
+            toPages();
+        } else if (state != 0 && mode == 0) {
+            toArrays();
+        }
+        state = mode | (state & RESIZING);
+    }
+
+    /**
+     * Enable or disable incremental resize. In incremental mode elements and buckets are stored in pages of fixed
+     * size: growth of HashSet only adds pages instead of copying arrays, and buckets of old table are split in place
+     * by a few buckets per insertion. Lookups, removals and iteration don't modify HashSet. Lookups in pages are
+     * slower than in flat arrays of default mode, and switching mode copies all elements.
+     *
+     * @param incrementalResize True to enable incremental resize.
+     */
+    public void setIncrementalResize(boolean incrementalResize) {
+        setMode(incrementalResize ? state | INCREMENTAL_RESIZE : state & ~INCREMENTAL_RESIZE);
+    }
+
+    /**
+     * Return true if incremental resize is enabled.
+     *
+     * @return True if incremental resize is enabled.
+     */
+    public boolean isIncrementalResize() {
+        return (state & INCREMENTAL_RESIZE) != 0;
+    }
+
+    /**
+     * Return true if incremental resize is in progress (buckets of old table are not split yet).
+     *
+     * @return True if incremental resize is in progress.
+     */
+    public boolean isResizing() {
+        return (state & RESIZING) != 0;
+    }
+
+    /**
+     * Enable or disable clear by generation. In this mode every bucket stores generation in which it was written,
+     * clear() only increments generation and buckets of older generations are treated as empty, so clear() doesn't
+     * depend on capacity. Like incremental resize, this mode stores elements and buckets in pages.
+     *
+     * @param generationClear True to enable clear by generation.
+     */
+    public void setGenerationClear(boolean generationClear) {
+        setMode(generationClear ? state | GENERATION_CLEAR : state & ~GENERATION_CLEAR);
+    }
+
+    /**
+     * Return true if clear by generation is enabled.
+     *
+     * @return True if clear by generation is enabled.
+     */
+    public boolean isGenerationClear() {
+        return (state & GENERATION_CLEAR) != 0;
     }
 
 
@@ -96,15 +411,17 @@ public class ObjHashSet<K> implements Iterable<K> {
         for (int i = 0; i < startCapacity; ++i) {
             keys.add(null);
         }
-        first = new int[startCapacity];
+        first = new int[getBucketCount(startCapacity)];
         next = new int[startCapacity];
         for (int i = 0; i < startCapacity; ++i) {
             next[i] = -i - 2;
         }
-        for (int i = 0; i < startCapacity; ++i) {
+        for (int i = 0; i < first.length; ++i) {
             first[i] = -1;
         }
         capacity = startCapacity;
+        mask = first.length - 1;
+        freeTop = startCapacity;
     }
 
     /**
@@ -117,24 +434,59 @@ public class ObjHashSet<K> implements Iterable<K> {
     void rebuild(int newCapacity) {
         if (newCapacity <= 0)
             throw new IllegalArgumentException("Capacity must be positive");
+        if (state != 0) {
+            resizePages(newCapacity);
+            return;
+        }
         int oldCapacity = capacity;
         capacity = newCapacity;
+        freeTop = newCapacity;
         while (keys.size() < capacity) {
             keys.add(null);
         }
-        first = Arrays.copyOf(first, capacity);
         next = Arrays.copyOf(next, capacity);
-        for (int i = 0; i < capacity; ++i) {
-            next[i] = -i - 2;
-        }
-        for (int i = 0; i < capacity; ++i) {
-            first[i] = -1;
+        for (int i = oldCapacity; i < capacity; ++i) next[i] = -i - 2;
+        int bucketCount = getBucketCount(capacity);
+        if (bucketCount == first.length) return;
+        int[] oldFirst = first;
+        first = new int[bucketCount];
+        for (int i = 0; i < bucketCount; ++i) first[i] = -1;
+        mask = bucketCount - 1;
+        for (int bucket = 0; bucket < oldFirst.length; ++bucket) {
+            int current = oldFirst[bucket];
+            while (current >= 0) {
+                int following = next[current];
+                int hash = hashFunction(keys.get(current));
+                next[current] = first[hash];
+                first[hash] = current;
+                current = following;
+            }
         }
-        head = 0;
-        count = 0;
-        for (int i = 0; i < oldCapacity; ++i) {
-            put(keys.get(i));
+    }
+
+    void resizePages(int newCapacity) {
+        if ((state & RESIZING) != 0) migrate(oldMask + 1);
+        capacity = newCapacity;
+        int pageCount = getPageCount(capacity);
+        keyPages = Arrays.copyOf(keyPages, pageCount);
+        nextPages = Arrays.copyOf(nextPages, pageCount);
+        // Only the single page of small HashSet grows, other pages are never copied.
+        int length = Math.min(PAGE_SIZE, capacity);
+        if (nextPages[0] != null && nextPages[0].length < length) {
+            keyPages[0] = Arrays.copyOf(keyPages[0], length);
+            nextPages[0] = Arrays.copyOf(nextPages[0], length);
         }
+        int bucketCount = getBucketCount(capacity);
+        if (bucketCount == mask + 1) return;
+        pageCount = getPageCount(bucketCount);
+        firstPages = Arrays.copyOf(firstPages, pageCount);
+        length = Math.min(PAGE_SIZE, bucketCount) << 1;
+        if (firstPages[0].length < length) firstPages[0] = Arrays.copyOf(firstPages[0], length);
+        oldMask = mask;
+        migrated = 0;
+        mask = bucketCount - 1;
+        state |= RESIZING;
+        if ((state & INCREMENTAL_RESIZE) == 0) migrate(oldMask + 1);
     }
 
 
@@ -145,6 +497,19 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @param key   Key of element.
      */
     public void put(K key) {
+        if (state != 0) {
+            long iterator = locatePaged(key);
+            if (iterator == NO_ELEMENT) {
+                insertPaged(key);
+                return;
+            }
+            int place = getPlace(iterator);
+            if (place == getPlace(reservedSpace)) {
+                allocedPlaceWasFilled = true;
+            }
+            storeKey(place, key);
+            return;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
@@ -160,9 +525,8 @@ public class ObjHashSet<K> implements Iterable<K> {
             }
             current = next[current];
         }
-        int last = head;
+        int last = takeFreePlace();
         keys.set(last, key);
-        head = -(next[last] + 1);
         next[last] = first[hash];
         first[hash] = last;
         count++;
@@ -176,6 +540,11 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return True if we can add this element(there is no element with such key). False otherwise.
      */
     public boolean tryPut(K key) {
+        if (state != 0) {
+            if (locatePaged(key) != NO_ELEMENT) return false;
+            insertPaged(key);
+            return true;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
@@ -187,9 +556,8 @@ public class ObjHashSet<K> implements Iterable<K> {
             }
             current = next[current];
         }
-        int last = head;
+        int last = takeFreePlace();
         keys.set(last, key);
-        head = -(next[last] + 1);
         next[last] = first[hash];
         first[hash] = last;
         count++;
@@ -204,6 +572,7 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return True if element exists. False otherwise.
      */
     public boolean remove(K key) {
+        if (state != 0) return removePaged(key) >= 0;
         int hash = hashFunction(key);
         int current = first[hash];
         int previous = -1;
@@ -214,7 +583,7 @@ public class ObjHashSet<K> implements Iterable<K> {
                 }
                 int last = head;
                 head = current;
-                if (current == first[hash]) {
+                if (previous < 0) {
                     first[hash] = next[current];
                 } else {
                     next[previous] = next[current];
@@ -235,11 +604,26 @@ public class ObjHashSet<K> implements Iterable<K> {
 
     /**
      * Remove all elements from HashSet.
+     * If keys are stored in pages (clear by generation or incremental resize is enabled), only generation
+     * counter is incremented.
      */
     public void clear() {
         count = 0;
         allocedPlaceWasFilled = true;
         head = 0;
+        if (state != 0) {
+            freeTop = 0;
+            if ((state & RESIZING) != 0) {
+                // Buckets aren't split yet, but all of them are empty now, so old table is kept.
+                mask = oldMask;
+                state &= ~RESIZING;
+            }
+            if (++generation == 0) {
+                // Counter wrapped, so stamps of old generations can't be distinguished from the new one.
+                for (int bucket = 0; bucket <= mask; ++bucket) storeHead(bucket, -1);
+            }
+            return;
+        }
         for (int i = 0; i < next.length; ++i) {
             next[i] = -i - 2;
         }
@@ -280,6 +664,7 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return Iterator of element with key in HashSet (NO_ELEMENT if key not existing).
      */
     public long locate(K key) {
+        if (state != 0) return locatePaged(key);
         int hash = hashFunction(key);
         int current = first[hash];
         while (current >= 0) {
@@ -303,6 +688,16 @@ public class ObjHashSet<K> implements Iterable<K> {
         if (!allocedPlaceWasFilled) {
             throw new RuntimeException("You try to allocate new empty space before filling old empty space");
         }
+        if (state != 0) {
+            long iterator = locatePaged(key);
+            if (iterator != NO_ELEMENT) {
+                reservedSpace = NO_ELEMENT;
+                return iterator;
+            }
+            reservedSpace = insertPaged(key);
+            allocedPlaceWasFilled = false;
+            return reservedSpace;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
@@ -317,8 +712,7 @@ public class ObjHashSet<K> implements Iterable<K> {
             current = next[current];
         }
 
-        int last = head;
-        head = -(next[last] + 1);
+        int last = takeFreePlace();
         next[last] = first[hash];
         first[hash] = last;
         keys.set(last, key);
@@ -335,10 +729,14 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return iterator to first element of hash set.
      */
     public long getFirst() {
-        for (int i = 0; i < capacity; ++i) {
-            if (first[i] >= 0) {
-                return getIterator(i, first[i]);
-            }
+        return findBucket(0);
+    }
+
+    long findBucket(int bucket) {
+        for (; bucket <= mask; ++bucket) {
+            if (!isBucket(bucket)) continue;
+            int place = loadHead(bucket);
+            if (place >= 0) return getIterator(bucket, place);
         }
         return NO_ELEMENT;
     }
@@ -350,21 +748,8 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return Iterator of element follows by given.
      */
     public long getNext(long iterator) {
-        int place = getPlace(iterator);
-        int hash = getHash(iterator);
-        if (next[place] < 0) {
-            hash++;
-            while (hash < capacity && first[hash] < 0) {
-                hash++;
-            }
-            if (hash == capacity) {
-                return NO_ELEMENT;
-            } else {
-                return getIterator(hash, first[hash]);
-            }
-        } else {
-            return getIterator(hash, next[place]);
-        }
+        int following = loadNext(getPlace(iterator));
+        return following >= 0 ? getIterator(getHash(iterator), following) : findBucket(getHash(iterator) + 1);
     }
 
     /**
@@ -378,29 +763,19 @@ public class ObjHashSet<K> implements Iterable<K> {
         if (iterator == NO_ELEMENT) {
             throw new NoSuchElementException("You try to delete element by incorrect iterator");
         }
-
         if (iterator == reservedSpace) {
             allocedPlaceWasFilled = true;
         }
-
         int previous = -1;
         long nxt = getNext(iterator);
         int hash = getHash(iterator);
-        int current = first[hash];
+        int current = loadHead(hash);
         int itPlace = getPlace(iterator);
-        while (next[current] >= 0 && current != itPlace) {
+        while (loadNext(current) >= 0 && current != itPlace) {
             previous = current;
-            current = next[current];
+            current = loadNext(current);
         }
-        int last = head;
-        head = current;
-        if (itPlace == first[hash]) {
-            first[hash] = next[current];
-        } else {
-            next[previous] = next[current];
-        }
-        next[current] = -last - 1;
-        count--;
+        unlink(hash, previous, current);
         return nxt;
     }
 
@@ -411,8 +786,7 @@ public class ObjHashSet<K> implements Iterable<K> {
      * @return Key of element by iterator.
      */
     public K getKeyAt(long iterator) {
-        int place = getPlace(iterator);
-        return keys.get(place);
+        return loadKey(getPlace(iterator));
     }
 
 
@@ -426,8 +800,7 @@ public class ObjHashSet<K> implements Iterable<K> {
         if (iterator == reservedSpace) {
             allocedPlaceWasFilled = true;
         }
-        int place = getPlace(iterator);
-        keys.set(place, value);
+        storeKey(getPlace(iterator), value);
     }
 
 
@@ -456,8 +829,7 @@ public class ObjHashSet<K> implements Iterable<K> {
                 } else {
                     key = getNext(key);
                 }
-                int place = getPlace(key);
-                return keys.get(place);
+                return loadKey(getPlace(key));
             }
 
             /**
@@ -484,6 +856,43 @@ public class ObjHashSet<K> implements Iterable<K> {
         };
     }
 
+    /**
+     * Perform action for each key of HashSet. Chains are walked directly, so no objects are allocated.
+     *
+     * @param action Action to perform for key.
+     */
+    public void forEachKey(ObjConsumer action) {
+        for (int i = 0; i <= mask; ++i) {
+            if (!isBucket(i)) continue;
+            for (int current = loadHead(i); current >= 0; current = loadNext(current)) {
+                action.accept(loadKey(current));
+            }
+        }
+    }
+
+    /**
+     * Remove all keys of HashSet which satisfy predicate.
+     *
+     * @param predicate Predicate for key.
+     * @return True if any key was removed.
+     */
+    public boolean removeIf(ObjToBoolFunction predicate) {
+        boolean removed = false;
+        for (int i = 0; i <= mask; ++i) {
+            if (!isBucket(i)) continue;
+            int current = loadHead(i);
+            while (current >= 0) {
+                int following = loadNext(current);
+                if (predicate.apply(loadKey(current))) {
+                    remove(loadKey(current));
+                    removed = true;
+                }
+                current = following;
+            }
+        }
+        return removed;
+    }
+
     /**
      * Return true if HashSet is empty.
      * @return True if HashSet is empty.
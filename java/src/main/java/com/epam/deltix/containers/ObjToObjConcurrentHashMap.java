@@ -0,0 +1,279 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import java.util.ArrayList;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe HashMap. Key is Object, Value is Object.
+ * Keys are striped over segments, every segment is ObjToObjHashMap guarded by own StampedLock.
+ * Reads are optimistic and fall back to read lock only if segment was modified concurrently.
+ */
+public class ObjToObjConcurrentHashMap<K, V> {
+    /**
+     * Default number of segments.
+     */
+    public static final int DEFAULT_SEGMENT_COUNT = 64;
+
+    final ObjToObjHashMap<K, V>[] segments;
+    final StampedLock[] locks;
+    final int segmentMask;
+    final V defaultValue;
+
+    /**
+     * Create instance of hashmap.
+     *
+     * @param segmentCount    Number of segments (rounded up to power of two).
+     * @param segmentCapacity Start capacity of every segment.
+     * @param defaultValue    Default value. Used as return-value for some methods.
+     * @throws IllegalArgumentException If segment count or capacity is not positive
+     */
+    public ObjToObjConcurrentHashMap(int segmentCount, int segmentCapacity, V defaultValue) {
+        if (segmentCount <= 0 || segmentCapacity <= 0)
+            throw new IllegalArgumentException("Segment count and capacity must be positive");
+        int count = segmentCount == 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        segments = newSegments(count);
+        locks = new StampedLock[count];
+        for (int i = 0; i < count; ++i) {
+            segments[i] = new ObjToObjHashMap<K, V>(segmentCapacity, defaultValue);
+            locks[i] = new StampedLock();
+        }
+        segmentMask = count - 1;
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Create instance of hashmap.
+     *
+     * @param defaultValue Default value. Used as return-value for some methods.
+     */
+    public ObjToObjConcurrentHashMap(V defaultValue) {
+        this(DEFAULT_SEGMENT_COUNT, 16, defaultValue);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A, B> ObjToObjHashMap<A, B>[] newSegments(int count) {
+        // Array of generic segments can't be created directly, so raw array is cast here.
+        return (ObjToObjHashMap<A, B>[]) new ObjToObjHashMap[count];
+    }
+
+    int segmentIndex(K key) {
+        return ((key.hashCode() * 0x9E3779B9) >>> 16) & segmentMask;
+    }
+
+    /**
+     * Lock-free lookup of place of key in segment. Result is valid only if segment was not modified during the call.
+     */
+    int find(ObjToObjHashMap<K, V> segment, K key) {
+        int[] first = segment.first;
+        int[] next = segment.next;
+        ArrayList<K> keys = segment.keys;
+        int current = first[segment.hashFunction(key) & (first.length - 1)];
+        for (int steps = 0; current >= 0 && steps < next.length; ++steps) {
+            if (keys.get(current).equals(key)) {
+                return current;
+            }
+            current = next[current];
+        }
+        return -1;
+    }
+
+    /**
+     * Get value of element by key.
+     *
+     * @param key Key of element.
+     * @return Value of element with key or default if there is no element with such key.
+     */
+    public V get(K key) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        ObjToObjHashMap<K, V> segment = segments[index];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int place = find(segment, key);
+                V value = place < 0 ? defaultValue : segment.values.get(place);
+                if (lock.validate(stamp)) return value;
+            } catch (RuntimeException e) {
+                // Segment was modified during optimistic read, fall back to read lock.
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return segment.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Return true if hashmap contains key.
+     *
+     * @param key Key to find.
+     * @return True if hashmap contains key.
+     */
+    public boolean containsKey(K key) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        ObjToObjHashMap<K, V> segment = segments[index];
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean found = find(segment, key) >= 0;
+                if (lock.validate(stamp)) return found;
+            } catch (RuntimeException e) {
+                // Segment was modified during optimistic read, fall back to read lock.
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return segment.containsKey(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Set element with key to value. Add new element with key and value if there is no element with such key.
+     * Overwrite only value if there is element with such key in map.
+     *
+     * @param key   Key of element.
+     * @param value Value of element.
+     */
+    public void set(K key, V value) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        long stamp = lock.writeLock();
+        try {
+            segments[index].set(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Try to add element with key and value.
+     *
+     * @param key   Key of element.
+     * @param value Value of element.
+     * @return True if we can add this element(there is no element with such key). False otherwise.
+     */
+    public boolean trySet(K key, V value) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        long stamp = lock.writeLock();
+        try {
+            return segments[index].trySet(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Add element with key and value to HashMap. If there is element with such key than this method overwrite only value.
+     *
+     * @param key   Key of element.
+     * @param value Value of element.
+     * @return Old value of element or default value(if key not exists).
+     */
+    public V setAndGet(K key, V value) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        long stamp = lock.writeLock();
+        try {
+            return segments[index].setAndGet(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove element with such key from hashmap.
+     *
+     * @param key Key of element to delete.
+     * @return True if element exists. False otherwise.
+     */
+    public boolean tryRemove(K key) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        long stamp = lock.writeLock();
+        try {
+            return segments[index].tryRemove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove element from hashmap.
+     *
+     * @param key Key of element to delete.
+     * @return Value of removed element or default(if there is no key to remove).
+     */
+    public V remove(K key) {
+        int index = segmentIndex(key);
+        StampedLock lock = locks[index];
+        long stamp = lock.writeLock();
+        try {
+            return segments[index].remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove all elements from HashMap. Segments are cleared one by one, so concurrent writers can add elements
+     * to already cleared segments.
+     */
+    public void clear() {
+        for (int i = 0; i < segments.length; ++i) {
+            long stamp = locks[i].writeLock();
+            try {
+                segments[i].clear();
+            } finally {
+                locks[i].unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Return number of elements in hashmap. Result is not atomic snapshot if hashmap is modified concurrently.
+     *
+     * @return Number of elements in hashmap.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < segments.length; ++i) {
+            long stamp = locks[i].readLock();
+            try {
+                size += segments[i].size();
+            } finally {
+                locks[i].unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Return true if HashMap is empty.
+     * @return True if HashMap is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -17,6 +17,11 @@
 package com.epam.deltix.containers;
 
 
+import com.epam.deltix.containers.generated.ObjConsumer;
+import com.epam.deltix.containers.generated.ObjObjConsumer;
+import com.epam.deltix.containers.generated.ObjObjToBoolFunction;
+import com.epam.deltix.containers.generated.ObjObjToObjFunction;
+
 import java.util.*;
 
 
@@ -31,6 +36,14 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      */
     public static final int NO_ELEMENT = -1;
     private static final int NON_EMPTY_FLAG = Integer.MIN_VALUE;
+    private static final int MIGRATION_STEP = 4;
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Bits of state. Zero state means flat arrays, any mode moves elements and buckets to pages.
+    private static final int INCREMENTAL_RESIZE = 1;
+    private static final int GENERATION_CLEAR = 2;
+    private static final int RESIZING = 4;
 
     V defaultValue;
 
@@ -39,11 +52,23 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
     int[] first;
     int[] next;
 
+    Object[][] keyPages;
+    Object[][] valuePages;
+    int[][] nextPages;
+    int[][] firstPages;
+
+    int mask;
     boolean allocedPlaceWasFilled = true;
     int head;
+    int freeTop;
+    int generation;
     int capacity;
     int count = 0;
     long reservedSpace = NO_ELEMENT;
+    int state;
+    int oldMask;
+    int migrated;
+    HashMapStatistics statistics;
 
     /**
      * Get reserved by locateOrReserve empty space.
@@ -56,7 +81,339 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
 
 
     int hashFunction(K value) {
-        return Math.abs(value.hashCode() % capacity);
+        int hash = value.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    static int getBucketCount(int capacity) {
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+
+    static int getPageCount(int length) {
+        return (length + PAGE_MASK) >>> PAGE_SHIFT;
+    }
+
+    @SuppressWarnings("unchecked")
+    K loadKey(int place) {
+        return state == 0 ? keys.get(place) : (K) keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK];
+    }
+
+    void storeKey(int place, K key) {
+        if (state == 0) {
+            keys.set(place, key);
+        } else {
+            keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V loadValue(int place) {
+        return state == 0 ? values.get(place) : (V) valuePages[place >>> PAGE_SHIFT][place & PAGE_MASK];
+    }
+
+    void storeValue(int place, V value) {
+        if (state == 0) {
+            values.set(place, value);
+        } else {
+            valuePages[place >>> PAGE_SHIFT][place & PAGE_MASK] = value;
+        }
+    }
+
+    int loadNext(int place) {
+        return state == 0 ? next[place] : nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK];
+    }
+
+    void storeNext(int place, int link) {
+        if (state == 0) {
+            next[place] = link;
+        } else {
+            nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = link;
+        }
+    }
+
+    int loadHead(int bucket) {
+        return state == 0 ? first[bucket] : pagedHead(bucket);
+    }
+
+    void storeHead(int bucket, int place) {
+        if (state == 0) {
+            first[bucket] = place;
+        } else {
+            setPagedHead(bucket, place);
+        }
+    }
+
+    int pagedHead(int bucket) {
+        // Page of buckets holds pairs of head of chain and generation in which it was written.
+        int[] page = firstPages[bucket >>> PAGE_SHIFT];
+        int index = (bucket & PAGE_MASK) << 1;
+        return page[index + 1] == generation ? page[index] : -1;
+    }
+
+    void setPagedHead(int bucket, int place) {
+        int[] page = firstPages[bucket >>> PAGE_SHIFT];
+        int index = (bucket & PAGE_MASK) << 1;
+        page[index] = place;
+        page[index + 1] = generation;
+    }
+
+    int bucketOf(int hash) {
+        // Bucket of old table which isn't split yet holds elements of all its successors.
+        return (state & RESIZING) != 0 && (hash & oldMask) >= migrated ? hash & oldMask : hash;
+    }
+
+    boolean isBucket(int bucket) {
+        return (state & RESIZING) == 0 || bucket <= oldMask || (bucket & oldMask) < migrated;
+    }
+
+    int takeFreePlace() {
+        int place = head;
+        head = -(next[place] + 1);
+        return place;
+    }
+
+    int takePagedPlace() {
+        int place = head;
+        if (place != freeTop) {
+            head = -(nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] + 1);
+            return place;
+        }
+        // Places from freeTop aren't linked to list of free places, their pages are allocated on first use.
+        head = ++freeTop;
+        int page = place >>> PAGE_SHIFT;
+        if (nextPages[page] == null) {
+            keyPages[page] = new Object[PAGE_SIZE];
+            valuePages[page] = new Object[PAGE_SIZE];
+            nextPages[page] = new int[PAGE_SIZE];
+        }
+        return place;
+    }
+
+    void unlink(int bucket, int previous, int place) {
+        if (previous < 0) {
+            storeHead(bucket, loadNext(place));
+        } else {
+            storeNext(previous, loadNext(place));
+        }
+        storeNext(place, -head - 1);
+        head = place;
+        count--;
+    }
+
+    long locatePaged(K key) {
+        int bucket = bucketOf(hashFunction(key));
+        int current = pagedHead(bucket);
+        int probes = 0;
+        while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
+            if (keyPages[current >>> PAGE_SHIFT][current & PAGE_MASK].equals(key)) {
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+                return getIterator(bucket, current);
+            }
+            current = nextPages[current >>> PAGE_SHIFT][current & PAGE_MASK];
+        }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        return NO_ELEMENT;
+    }
+
+    long insertPaged(K key, V value) {
+        if (count == capacity) {
+            rebuild(capacity << 1);
+        }
+        if ((state & RESIZING) != 0) migrate(MIGRATION_STEP);
+        int bucket = bucketOf(hashFunction(key));
+        int place = takePagedPlace();
+        int following = pagedHead(bucket);
+        keyPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = key;
+        valuePages[place >>> PAGE_SHIFT][place & PAGE_MASK] = value;
+        nextPages[place >>> PAGE_SHIFT][place & PAGE_MASK] = following < 0 ? NON_EMPTY_FLAG : following;
+        setPagedHead(bucket, place);
+        count++;
+        return getIterator(bucket, place);
+    }
+
+    int findOrInsertPaged(K key) {
+        long iterator = locatePaged(key);
+        if (iterator == NO_ELEMENT) return -getPlace(insertPaged(key, defaultValue)) - 1;
+        int place = getPlace(iterator);
+        if (place == getPlace(reservedSpace)) {
+            allocedPlaceWasFilled = true;
+        }
+        return place;
+    }
+
+    int removePaged(K key) {
+        int bucket = bucketOf(hashFunction(key));
+        int current = pagedHead(bucket);
+        int previous = -1;
+        int probes = 0;
+        while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
+            if (keyPages[current >>> PAGE_SHIFT][current & PAGE_MASK].equals(key)) {
+                if (current == getPlace(reservedSpace)) {
+                    allocedPlaceWasFilled = true;
+                }
+                unlink(bucket, previous, current);
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+                return current;
+            }
+            previous = current;
+            current = nextPages[current >>> PAGE_SHIFT][current & PAGE_MASK];
+        }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        return -1;
+    }
+
+    /**
+     * Split next buckets of old table. Successors of old bucket are bucket + k * (oldMask + 1) of new table,
+     * so bucket is split in place and new table doesn't need other storage.
+     */
+    void migrate(int bucketCount) {
+        int oldBucketCount = oldMask + 1;
+        int end = Math.min(migrated + bucketCount, oldBucketCount);
+        for (; migrated < end; ++migrated) {
+            int current = pagedHead(migrated);
+            for (int bucket = migrated; bucket <= mask; bucket += oldBucketCount) {
+                if (firstPages[bucket >>> PAGE_SHIFT] == null) firstPages[bucket >>> PAGE_SHIFT] = new int[PAGE_SIZE << 1];
+                setPagedHead(bucket, -1);
+            }
+            while (current >= 0) {
+                int[] nextPage = nextPages[current >>> PAGE_SHIFT];
+                int following = nextPage[current & PAGE_MASK];
+                int hash = hashFunction(loadKey(current));
+                int chain = pagedHead(hash);
+                nextPage[current & PAGE_MASK] = chain < 0 ? NON_EMPTY_FLAG : chain;
+                setPagedHead(hash, current);
+                current = following;
+            }
+        }
+        if (migrated == oldBucketCount) state &= ~RESIZING;
+    }
+
+    void toPages() {
+        int pageCount = getPageCount(capacity);
+        keyPages = new Object[pageCount][];
+        valuePages = new Object[pageCount][];
+        nextPages = new int[pageCount][];
+        for (int page = 0; page < pageCount; ++page) {
+            int length = page == 0 ? Math.min(PAGE_SIZE, capacity) : PAGE_SIZE;
+            keyPages[page] = new Object[length];
+            valuePages[page] = new Object[length];
+            nextPages[page] = new int[length];
+        }
+        for (int i = 0; i < capacity; ++i) {
+            keyPages[i >>> PAGE_SHIFT][i & PAGE_MASK] = keys.get(i);
+            valuePages[i >>> PAGE_SHIFT][i & PAGE_MASK] = values.get(i);
+            nextPages[i >>> PAGE_SHIFT][i & PAGE_MASK] = next[i];
+        }
+        pageCount = getPageCount(first.length);
+        firstPages = new int[pageCount][];
+        for (int page = 0; page < pageCount; ++page) {
+            firstPages[page] = new int[Math.min(PAGE_SIZE, first.length) << 1];
+        }
+        for (int i = 0; i < first.length; ++i) {
+            firstPages[i >>> PAGE_SHIFT][(i & PAGE_MASK) << 1] = first[i];
+            firstPages[i >>> PAGE_SHIFT][((i & PAGE_MASK) << 1) + 1] = generation;
+        }
+        keys = null;
+        values = null;
+        next = null;
+        first = null;
+    }
+
+    /**
+     * Move elements from pages back to flat arrays. Elements are relinked into buckets of full table,
+     * so pending incremental resize doesn't need to be completed.
+     */
+    void toArrays() {
+        ArrayList<K> newKeys = new ArrayList<K>(capacity);
+        ArrayList<V> newValues = new ArrayList<V>(capacity);
+        int[] newNext = new int[capacity];
+        int[] newFirst = new int[getBucketCount(capacity)];
+        Arrays.fill(newFirst, -1);
+        mask = newFirst.length - 1;
+        for (int i = 0; i < capacity; ++i) {
+            int link = i < freeTop ? loadNext(i) : -i - 2;
+            newKeys.add(i < freeTop ? loadKey(i) : null);
+            newValues.add(i < freeTop ? loadValue(i) : null);
+            if (link >= 0 || link == NON_EMPTY_FLAG) {
+                int hash = hashFunction(loadKey(i));
+                link = newFirst[hash] < 0 ? NON_EMPTY_FLAG : newFirst[hash];
+                newFirst[hash] = i;
+            }
+            newNext[i] = link;
+        }
+        keys = newKeys;
+        values = newValues;
+        next = newNext;
+        first = newFirst;
+        freeTop = capacity;
+        keyPages = null;
+        valuePages = null;
+        nextPages = null;
+        firstPages = null;
+    }
+
+    void setMode(int mode) {
+        mode &= INCREMENTAL_RESIZE | GENERATION_CLEAR;
+        if ((state & RESIZING) != 0 && (mode & INCREMENTAL_RESIZE) == 0) migrate(oldMask + 1);
+        if (state == 0 && mode != 0) {
+            toPages();
+        } else if (state != 0 && mode == 0) {
+            toArrays();
+        }
+        state = mode | (state & RESIZING);
+    }
+
+    /**
+     * Enable or disable incremental resize. In incremental mode elements and buckets are stored in pages of fixed
+     * size: growth of hashmap only adds pages instead of copying arrays, and buckets of old table are split in place
+     * by a few buckets per insertion. Lookups, removals and iteration don't modify hashmap. Lookups in pages are
+     * slower than in flat arrays of default mode, and switching mode copies all elements.
+     *
+     * @param incrementalResize True to enable incremental resize.
+     */
+    public void setIncrementalResize(boolean incrementalResize) {
+        setMode(incrementalResize ? state | INCREMENTAL_RESIZE : state & ~INCREMENTAL_RESIZE);
+    }
+
+    /**
+     * Return true if incremental resize is enabled.
+     *
+     * @return True if incremental resize is enabled.
+     */
+    public boolean isIncrementalResize() {
+        return (state & INCREMENTAL_RESIZE) != 0;
+    }
+
+    /**
+     * Return true if incremental resize is in progress (buckets of old table are not split yet).
+     *
+     * @return True if incremental resize is in progress.
+     */
+    public boolean isResizing() {
+        return (state & RESIZING) != 0;
+    }
+
+    /**
+     * Enable or disable clear by generation. In this mode every bucket stores generation in which it was written,
+     * clear() only increments generation and buckets of older generations are treated as empty, so clear() doesn't
+     * depend on capacity. Like incremental resize, this mode stores elements and buckets in pages.
+     *
+     * @param generationClear True to enable clear by generation.
+     */
+    public void setGenerationClear(boolean generationClear) {
+        setMode(generationClear ? state | GENERATION_CLEAR : state & ~GENERATION_CLEAR);
+    }
+
+    /**
+     * Return true if clear by generation is enabled.
+     *
+     * @return True if clear by generation is enabled.
+     */
+    public boolean isGenerationClear() {
+        return (state & GENERATION_CLEAR) != 0;
     }
 
 
@@ -104,15 +461,17 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
         for (int i = 0; i < startCapacity; ++i) {
             values.add(null);
         }
-        first = new int[startCapacity];
+        first = new int[getBucketCount(startCapacity)];
         next = new int[startCapacity];
         for (int i = 0; i < startCapacity; ++i) {
             next[i] = -i - 2;
         }
-        for (int i = 0; i < startCapacity; ++i) {
+        for (int i = 0; i < first.length; ++i) {
             first[i] = -1;
         }
         capacity = startCapacity;
+        mask = first.length - 1;
+        freeTop = startCapacity;
     }
 
     /**
@@ -125,27 +484,74 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
     }
 
     void rebuild(int newCapacity) {
+        if (!HashMapStatistics.ENABLED) {
+            resize(newCapacity);
+            return;
+        }
+        long start = System.nanoTime();
+        resize(newCapacity);
+        statistics().recordResize(System.nanoTime() - start);
+    }
+
+    void resize(int newCapacity) {
+        if (state != 0) {
+            resizePages(newCapacity);
+            return;
+        }
         int oldCapacity = capacity;
         capacity = newCapacity;
-        while (values.size() < capacity) {
-            values.add(null);
-        }
+        freeTop = newCapacity;
         while (keys.size() < capacity) {
             keys.add(null);
         }
-        first = Arrays.copyOf(first, capacity);
-        next = Arrays.copyOf(next, capacity);
-        for (int i = 0; i < capacity; ++i) {
-            next[i] = -i - 2;
+        while (values.size() < capacity) {
+            values.add(null);
         }
-        for (int i = 0; i < capacity; ++i) {
-            first[i] = -1;
+        next = Arrays.copyOf(next, capacity);
+        for (int i = oldCapacity; i < capacity; ++i) next[i] = -i - 2;
+        int bucketCount = getBucketCount(capacity);
+        if (bucketCount == first.length) return;
+        int[] oldFirst = first;
+        first = new int[bucketCount];
+        for (int i = 0; i < bucketCount; ++i) first[i] = -1;
+        mask = bucketCount - 1;
+        for (int bucket = 0; bucket < oldFirst.length; ++bucket) {
+            int current = oldFirst[bucket];
+            while (current >= 0) {
+                int following = next[current];
+                int hash = hashFunction(keys.get(current));
+                next[current] = first[hash] < 0 ? NON_EMPTY_FLAG : first[hash];
+                first[hash] = current;
+                current = following;
+            }
         }
-        head = 0;
-        count = 0;
-        for (int i = 0; i < oldCapacity; ++i) {
-            set(keys.get(i), values.get(i));
+    }
+
+    void resizePages(int newCapacity) {
+        if ((state & RESIZING) != 0) migrate(oldMask + 1);
+        capacity = newCapacity;
+        int pageCount = getPageCount(capacity);
+        keyPages = Arrays.copyOf(keyPages, pageCount);
+        valuePages = Arrays.copyOf(valuePages, pageCount);
+        nextPages = Arrays.copyOf(nextPages, pageCount);
+        // Only the single page of small hashmap grows, other pages are never copied.
+        int length = Math.min(PAGE_SIZE, capacity);
+        if (nextPages[0] != null && nextPages[0].length < length) {
+            keyPages[0] = Arrays.copyOf(keyPages[0], length);
+            valuePages[0] = Arrays.copyOf(valuePages[0], length);
+            nextPages[0] = Arrays.copyOf(nextPages[0], length);
         }
+        int bucketCount = getBucketCount(capacity);
+        if (bucketCount == mask + 1) return;
+        pageCount = getPageCount(bucketCount);
+        firstPages = Arrays.copyOf(firstPages, pageCount);
+        length = Math.min(PAGE_SIZE, bucketCount) << 1;
+        if (firstPages[0].length < length) firstPages[0] = Arrays.copyOf(firstPages[0], length);
+        oldMask = mask;
+        migrated = 0;
+        mask = bucketCount - 1;
+        state |= RESIZING;
+        if ((state & INCREMENTAL_RESIZE) == 0) migrate(oldMask + 1);
     }
 
 
@@ -157,25 +563,33 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @param value Value of element.
      */
     public void set(K key, V value) {
+        if (state != 0) {
+            int place = findOrInsertPaged(key);
+            storeValue(place < 0 ? -place - 1 : place, value);
+            return;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
                 if (current == getPlace(reservedSpace)) {
                     allocedPlaceWasFilled = true;
                 }
                 values.set(current, value);
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return;
             }
             current = next[current];
         }
-        int last = head;
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        int last = takeFreePlace();
         keys.set(last, key);
         values.set(last, value);
-        head = -(next[last] + 1);
         next[last] = first[hash];
         if (next[last] < 0) {
             next[last] = NON_EMPTY_FLAG;
@@ -193,21 +607,29 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return True if we can add this element(there is no element with such key). False otherwise.
      */
     public boolean trySet(K key, V value) {
+        if (state != 0) {
+            if (locatePaged(key) != NO_ELEMENT) return false;
+            insertPaged(key, value);
+            return true;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return false;
             }
             current = next[current];
         }
-        int last = head;
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        int last = takeFreePlace();
         keys.set(last, key);
         values.set(last, value);
-        head = -(next[last] + 1);
         next[last] = first[hash];
         if (next[last] < 0) {
             next[last] = NON_EMPTY_FLAG;
@@ -225,26 +647,39 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Old value of element or default value(if key not exists).
      */
     public V setAndGet(K key, V value) {
+        if (state != 0) {
+            int place = findOrInsertPaged(key);
+            if (place < 0) {
+                storeValue(-place - 1, value);
+                return defaultValue;
+            }
+            V oldValue = loadValue(place);
+            storeValue(place, value);
+            return oldValue;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
                 if (current == getPlace(reservedSpace)) {
                     allocedPlaceWasFilled = true;
                 }
                 V oldValue = values.get(current);
                 values.set(current, value);
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return oldValue;
             }
             current = next[current];
         }
-        int last = head;
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        int last = takeFreePlace();
         keys.set(last, key);
         values.set(last, value);
-        head = -(next[last] + 1);
         next[last] = first[hash];
         if (next[last] < 0) {
             next[last] = NON_EMPTY_FLAG;
@@ -262,17 +697,125 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Value of element with key or default if there is no element with such key.
      */
     public V get(K key) {
+        if (state != 0) {
+            long iterator = locatePaged(key);
+            return iterator == NO_ELEMENT ? defaultValue : loadValue(getPlace(iterator));
+        }
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return values.get(current);
             }
             current = next[current];
         }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
         return defaultValue;
     }
 
+    /**
+     * Find place of element with key or add new element with key and default value.
+     *
+     * @param key Key of element.
+     * @return Place of element with key, or -(place + 1) if element was added.
+     */
+    int findOrInsert(K key) {
+        if (state != 0) return findOrInsertPaged(key);
+        int hash = hashFunction(key);
+        int current = first[hash];
+        int probes = 0;
+        while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
+            if (keys.get(current).equals(key)) {
+                if (current == getPlace(reservedSpace)) {
+                    allocedPlaceWasFilled = true;
+                }
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+                return current;
+            }
+            current = next[current];
+        }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
+        return -insertDefault(key) - 1;
+    }
+
+    /**
+     * Add new element with key and default value. Kept apart from findOrInsert, so lookup of existing key is small.
+     *
+     * @param key Key of element (there is no element with such key in hashmap).
+     * @return Place of added element.
+     */
+    int insertDefault(K key) {
+        if (count == capacity) {
+            rebuild(capacity << 1);
+        }
+        int hash = hashFunction(key);
+        int last = takeFreePlace();
+        keys.set(last, key);
+        values.set(last, defaultValue);
+        next[last] = first[hash];
+        if (next[last] < 0) {
+            next[last] = NON_EMPTY_FLAG;
+        }
+        first[hash] = last;
+        count++;
+        return last;
+    }
+
+    /**
+     * Get value of element by key.
+     *
+     * @param key          Key of element.
+     * @param defaultValue Value to return if there is no element with such key.
+     * @return Value of element with key or given default value if there is no element with such key.
+     */
+    public V getOrDefault(K key, V defaultValue) {
+        long iterator = locate(key);
+        return iterator == NO_ELEMENT ? defaultValue : loadValue(getPlace(iterator));
+    }
+
+    /**
+     * Set value of element with key to result of function of key and old value (default value if there is
+     * no element with such key). Element is found by one probe of hashmap.
+     *
+     * @param key      Key of element.
+     * @param function Function of key and old value.
+     * @return New value of element.
+     */
+    @SuppressWarnings("unchecked")
+    public V compute(K key, ObjObjToObjFunction function) {
+        int place = findOrInsert(key);
+        if (place < 0) place = -place - 1;
+        V value = (V) function.apply(key, loadValue(place));
+        storeValue(place, value);
+        return value;
+    }
+
+    /**
+     * Set value of element with key to given value if there is no element with such key.
+     * Otherwise set value of element to result of function of old value and given value.
+     * Element is found by one probe of hashmap.
+     *
+     * @param key      Key of element.
+     * @param value    Value to set or to merge with old value.
+     * @param function Function of old value and given value.
+     * @return New value of element.
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(K key, V value, ObjObjToObjFunction function) {
+        int place = findOrInsert(key);
+        if (place < 0) {
+            place = -place - 1;
+        } else {
+            value = (V) function.apply(loadValue(place), value);
+        }
+        storeValue(place, value);
+        return value;
+    }
+
     /**
      * Remove element with such key from hashmap.
      *
@@ -280,17 +823,20 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return True if element exists. False otherwise.
      */
     public boolean tryRemove(K key) {
+        if (state != 0) return removePaged(key) >= 0;
         int hash = hashFunction(key);
         int current = first[hash];
         int previous = -1;
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
                 if (current == getPlace(reservedSpace)) {
                     allocedPlaceWasFilled = true;
                 }
                 int last = head;
                 head = current;
-                if (current == first[hash]) {
+                if (previous < 0) {
                     first[hash] = next[current];
                 } else {
                     next[previous] = next[current];
@@ -298,11 +844,13 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
                 next[head] = -last - 1;
 
                 count--;
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return true;
             }
             previous = current;
             current = next[current];
         }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
         return false;
     }
 
@@ -313,39 +861,62 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Value of removed element or default(if there is no key to remove).
      */
     public V remove(K key) {
+        if (state != 0) {
+            int place = removePaged(key);
+            return place < 0 ? defaultValue : loadValue(place);
+        }
         int hash = hashFunction(key);
         int current = first[hash];
         int previous = -1;
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
                 if (current == getPlace(reservedSpace)) {
                     allocedPlaceWasFilled = true;
                 }
                 int last = head;
                 head = current;
-                if (current == first[hash]) {
+                if (previous < 0) {
                     first[hash] = next[current];
                 } else {
                     next[previous] = next[current];
                 }
                 next[head] = -last - 1;
                 count--;
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return values.get(current);
             }
             previous = current;
             current = next[current];
         }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
         return defaultValue;
     }
 
 
     /**
      * Remove all elements from HashMap.
+     * If elements are stored in pages (clear by generation or incremental resize is enabled), only generation
+     * counter is incremented.
      */
     public void clear() {
         count = 0;
         allocedPlaceWasFilled = true;
         head = 0;
+        if (state != 0) {
+            freeTop = 0;
+            if ((state & RESIZING) != 0) {
+                // Buckets aren't split yet, but all of them are empty now, so old table is kept.
+                mask = oldMask;
+                state &= ~RESIZING;
+            }
+            if (++generation == 0) {
+                // Counter wrapped, so stamps of old generations can't be distinguished from the new one.
+                for (int bucket = 0; bucket <= mask; ++bucket) storeHead(bucket, -1);
+            }
+            return;
+        }
         for (int i = 0; i < next.length; ++i) {
             next[i] = -i - 2;
         }
@@ -386,14 +957,19 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Iterator of element with key in HashMap (NO_ELEMENT if key not existing).
      */
     public long locate(K key) {
+        if (state != 0) return locatePaged(key);
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return getIterator(hash, current);
             }
             current = next[current];
         }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
         return NO_ELEMENT;
     }
 
@@ -409,22 +985,35 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
         if (!allocedPlaceWasFilled) {
             throw new RuntimeException("You try to allocate new empty space before filling old empty space");
         }
+        if (state != 0) {
+            long iterator = locatePaged(key);
+            if (iterator != NO_ELEMENT) {
+                reservedSpace = NO_ELEMENT;
+                return iterator;
+            }
+            reservedSpace = insertPaged(key, defaultValue);
+            allocedPlaceWasFilled = false;
+            return reservedSpace;
+        }
         if (count == capacity) {
             rebuild(capacity << 1);
         }
 
         int hash = hashFunction(key);
         int current = first[hash];
+        int probes = 0;
         while (current >= 0) {
+            if (HashMapStatistics.ENABLED) probes++;
             if (keys.get(current).equals(key)) {
                 reservedSpace = NO_ELEMENT;
+                if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
                 return getIterator(hash, current);
             }
             current = next[current];
         }
+        if (HashMapStatistics.ENABLED) statistics().recordLookup(probes);
 
-        int last = head;
-        head = -(next[last] + 1);
+        int last = takeFreePlace();
         next[last] = first[hash];
         if (next[last] < 0) {
             next[last] = NON_EMPTY_FLAG;
@@ -444,10 +1033,14 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return iterator to first element of hash map.
      */
     public long getFirst() {
-        for (int i = 0; i < capacity; ++i) {
-            if (first[i] >= 0) {
-                return getIterator(i, first[i]);
-            }
+        return findBucket(0);
+    }
+
+    long findBucket(int bucket) {
+        for (; bucket <= mask; ++bucket) {
+            if (!isBucket(bucket)) continue;
+            int place = loadHead(bucket);
+            if (place >= 0) return getIterator(bucket, place);
         }
         return NO_ELEMENT;
     }
@@ -459,21 +1052,8 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Iterator of element follows by given.
      */
     public long getNext(long iterator) {
-        int place = getPlace(iterator);
-        int hash = getHash(iterator);
-        if (next[place] < 0) {
-            hash++;
-            while (hash < capacity && first[hash] < 0) {
-                hash++;
-            }
-            if (hash == capacity) {
-                return NO_ELEMENT;
-            } else {
-                return getIterator(hash, first[hash]);
-            }
-        } else {
-            return getIterator(hash, next[place]);
-        }
+        int following = loadNext(getPlace(iterator));
+        return following >= 0 ? getIterator(getHash(iterator), following) : findBucket(getHash(iterator) + 1);
     }
 
     /**
@@ -487,30 +1067,19 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
         if (iterator == NO_ELEMENT) {
             throw new NoSuchElementException("You try to delete element by incorrect iterator");
         }
-
         if (iterator == reservedSpace) {
             allocedPlaceWasFilled = true;
         }
-
         int previous = -1;
         long nxt = getNext(iterator);
         int hash = getHash(iterator);
-        int current = first[hash];
+        int current = loadHead(hash);
         int itPlace = getPlace(iterator);
-        while (next[current] >= 0 && current != itPlace) {
+        while (loadNext(current) >= 0 && current != itPlace) {
             previous = current;
-            current = next[current];
+            current = loadNext(current);
         }
-        int last = head;
-        head = current;
-        if (itPlace == first[hash]) {
-            first[hash] = next[current];
-        } else {
-            next[previous] = next[current];
-        }
-        next[current] = -last - 1;
-        count--;
-
+        unlink(hash, previous, current);
         return nxt;
     }
 
@@ -521,8 +1090,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Key of element by iterator.
      */
     public K getKeyAt(long iterator) {
-        int place = getPlace(iterator);
-        return keys.get(place);
+        return loadKey(getPlace(iterator));
     }
 
     /**
@@ -532,8 +1100,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Value of element by iterator.
      */
     public V getValueAt(long iterator) {
-        int place = getPlace(iterator);
-        return values.get(place);
+        return loadValue(getPlace(iterator));
     }
 
 
@@ -544,8 +1111,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @param value    new Value of element.
      */
     public void setValueAt(long iterator, V value) {
-        int place = getPlace(iterator);
-        values.set(place, value);
+        storeValue(getPlace(iterator), value);
     }
 
     /**
@@ -558,8 +1124,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
         if (iterator == reservedSpace) {
             allocedPlaceWasFilled = true;
         }
-        int place = getPlace(iterator);
-        keys.set(place, value);
+        storeKey(getPlace(iterator), value);
     }
 
 
@@ -571,8 +1136,9 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Unsafe iterator for first element.
      */
     public int getUnsafeFirst() {
-        for (int i = 0; i < keys.size(); ++i) {
-            if (next[i] >= 0 || next[i] == NON_EMPTY_FLAG) {
+        for (int i = 0; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if (link >= 0 || link == NON_EMPTY_FLAG) {
                 return i;
             }
         }
@@ -589,8 +1155,9 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Unsafe iterator for next element.
      */
     public int getUnsafeNext(int unsafeIterator) {
-        for (int i = unsafeIterator + 1; i < keys.size(); ++i) {
-            if (next[i] >= 0 || next[i] == NON_EMPTY_FLAG) {
+        for (int i = unsafeIterator + 1; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if (link >= 0 || link == NON_EMPTY_FLAG) {
                 return i;
             }
         }
@@ -604,7 +1171,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Key of element.
      */
     public K getKeyByUnsafeIterator(int unsafeIterator) {
-        return keys.get(unsafeIterator);
+        return loadKey(unsafeIterator);
     }
 
     /**
@@ -613,7 +1180,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
      * @return Value of element.
      */
     public V getValueByUnsafeIterator(int unsafeItetator) {
-        return values.get(unsafeItetator);
+        return loadValue(unsafeItetator);
     }
 
     /**
@@ -642,7 +1209,7 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
                     key = getNext(key);
                 }
                 int place = getPlace(key);
-                return new ObjObjPair<>(keys.get(place), values.get(place));
+                return new ObjObjPair<>(loadKey(place), loadValue(place));
             }
 
             /**
@@ -669,6 +1236,60 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
         };
     }
 
+    /**
+     * Perform action for each element of hashmap. Storage is scanned directly, so no objects are allocated.
+     *
+     * @param action Action to perform for key and value of element.
+     */
+    public void forEach(ObjObjConsumer action) {
+        for (int i = 0; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if (link >= 0 || link == NON_EMPTY_FLAG) action.accept(loadKey(i), loadValue(i));
+        }
+    }
+
+    /**
+     * Perform action for each key of hashmap. Storage is scanned directly, so no objects are allocated.
+     *
+     * @param action Action to perform for key of element.
+     */
+    public void forEachKey(ObjConsumer action) {
+        for (int i = 0; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if (link >= 0 || link == NON_EMPTY_FLAG) action.accept(loadKey(i));
+        }
+    }
+
+    /**
+     * Perform action for each value of hashmap. Storage is scanned directly, so no objects are allocated.
+     *
+     * @param action Action to perform for value of element.
+     */
+    public void forEachValue(ObjConsumer action) {
+        for (int i = 0; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if (link >= 0 || link == NON_EMPTY_FLAG) action.accept(loadValue(i));
+        }
+    }
+
+    /**
+     * Remove all elements of hashmap which satisfy predicate.
+     *
+     * @param predicate Predicate for key and value of element.
+     * @return True if any element was removed.
+     */
+    public boolean removeIf(ObjObjToBoolFunction predicate) {
+        boolean removed = false;
+        for (int i = 0; i < freeTop; ++i) {
+            int link = loadNext(i);
+            if ((link >= 0 || link == NON_EMPTY_FLAG) && predicate.apply(loadKey(i), loadValue(i))) {
+                tryRemove(loadKey(i));
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
     /**
      * Return true if HashMap is empty.
      * @return True if HashMap is empty.
@@ -676,4 +1297,30 @@ public class ObjToObjHashMap<K, V> implements Iterable<ObjObjPair<K, V>> {
     public boolean isEmpty() {
         return count == 0;
     }
+
+    HashMapStatistics statistics() {
+        if (statistics == null) statistics = new HashMapStatistics();
+        return statistics;
+    }
+
+    /**
+     * Return statistics of hashmap. Chain lengths are computed by this call (buckets of old table which aren't split
+     * yet by incremental resize are counted as they are), probes and resizes are collected only if
+     * HashMapStatistics.ENABLED.
+     *
+     * @return Statistics of hashmap.
+     */
+    public HashMapStatistics getStatistics() {
+        HashMapStatistics statistics = statistics();
+        int bucketCount = mask + 1;
+        if ((state & RESIZING) != 0) bucketCount -= (oldMask + 1 - migrated) * (bucketCount / (oldMask + 1) - 1);
+        statistics.beginChains(bucketCount);
+        for (int i = 0; i <= mask; ++i) {
+            if (!isBucket(i)) continue;
+            int length = 0;
+            for (int current = loadHead(i); current >= 0; current = loadNext(current)) length++;
+            statistics.recordChain(length);
+        }
+        return statistics;
+    }
 }
\ No newline at end of file
@@ -19,6 +19,7 @@ package com.epam.deltix.containers;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
+import java.nio.Buffer;
 
 
 /**
@@ -28,6 +29,7 @@ import java.lang.reflect.Field;
 public class UnsafeHelper {
 
     private static Unsafe u;
+    private static long bufferAddressOffset;
 
     static {
         try {
@@ -35,6 +37,7 @@ public class UnsafeHelper {
             f.setAccessible(true);
 
             u = (Unsafe) f.get(null);
+            bufferAddressOffset = u.objectFieldOffset(Buffer.class.getDeclaredField("address"));
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
@@ -71,6 +74,36 @@ public class UnsafeHelper {
         return u.getByte(array, index + Unsafe.ARRAY_LONG_BASE_OFFSET);
     }
 
+    /**
+     * Get short from long array.
+     * @param array Long array.
+     * @param index Offset in bytes.
+     * @return Short by array and offset.
+     */
+    public static short getShortFromLongArray(Object array, long index) {
+        return u.getShort(array, index + Unsafe.ARRAY_LONG_BASE_OFFSET);
+    }
+
+    /**
+     * Get int from long array.
+     * @param array Long array.
+     * @param index Offset in bytes.
+     * @return Int by array and offset.
+     */
+    public static int getIntFromLongArray(Object array, long index) {
+        return u.getInt(array, index + Unsafe.ARRAY_LONG_BASE_OFFSET);
+    }
+
+    /**
+     * Get long from long array.
+     * @param array Long array.
+     * @param index Offset in bytes.
+     * @return Long by array and offset.
+     */
+    public static long getLongFromLongArray(Object array, long index) {
+        return u.getLong(array, index + Unsafe.ARRAY_LONG_BASE_OFFSET);
+    }
+
     /**
      * Set byte to long array.
      * @param array Long array.
@@ -119,4 +152,237 @@ public class UnsafeHelper {
         u.copyMemory(source, sourceOffset + Unsafe.ARRAY_BYTE_BASE_OFFSET, destination, destinationOffset + Unsafe.ARRAY_LONG_BASE_OFFSET, count);
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Mem move from off-heap memory to long array.
+     * @param address Source address.
+     * @param destination Destination array.
+     * @param destinationOffset Destination offset in bytes.
+     * @param count Count in bytes.
+     */
+    public static void memMoveFromAddressToLong(long address, Object destination, long destinationOffset, long count) {
+        u.copyMemory(null, address, destination, destinationOffset + Unsafe.ARRAY_LONG_BASE_OFFSET, count);
+    }
+
+
+    /**
+     * Mem move from long array to off-heap memory.
+     * @param source Source array.
+     * @param sourceOffset Source offset in bytes.
+     * @param address Destination address.
+     * @param count Count in bytes.
+     */
+    public static void memMoveFromLongToAddress(Object source, long sourceOffset, long address, long count) {
+        u.copyMemory(source, sourceOffset + Unsafe.ARRAY_LONG_BASE_OFFSET, null, address, count);
+    }
+
+
+    /**
+     * Mem move from off-heap memory to byte array.
+     * @param address Source address.
+     * @param destination Destination array.
+     * @param destinationOffset Destination offset in bytes.
+     * @param count Count in bytes.
+     */
+    public static void memMoveFromAddressToByte(long address, Object destination, long destinationOffset, long count) {
+        u.copyMemory(null, address, destination, destinationOffset + Unsafe.ARRAY_BYTE_BASE_OFFSET, count);
+    }
+
+
+    /**
+     * Mem move from byte array to off-heap memory.
+     * @param source Source array.
+     * @param sourceOffset Source offset in bytes.
+     * @param address Destination address.
+     * @param count Count in bytes.
+     */
+    public static void memMoveFromByteToAddress(Object source, long sourceOffset, long address, long count) {
+        u.copyMemory(source, sourceOffset + Unsafe.ARRAY_BYTE_BASE_OFFSET, null, address, count);
+    }
+
+
+    /**
+     * Mem move inside off-heap memory. Source and destination blocks may overlap.
+     * @param sourceAddress Source address.
+     * @param destinationAddress Destination address.
+     * @param count Count in bytes.
+     */
+    public static void memMove(long sourceAddress, long destinationAddress, long count) {
+        u.copyMemory(sourceAddress, destinationAddress, count);
+    }
+
+
+    /**
+     * Get address of memory of direct buffer.
+     * @param buffer Direct buffer.
+     * @return Address of first element of buffer (not of its position).
+     */
+    public static long getBufferAddress(Buffer buffer) {
+        return u.getLong(buffer, bufferAddressOffset);
+    }
+
+
+    /**
+     * Allocate block of off-heap memory. Content of block is not initialized.
+     * @param bytes Size of block in bytes.
+     * @return Address of block.
+     */
+    public static long allocateMemory(long bytes) {
+        return u.allocateMemory(bytes);
+    }
+
+    /**
+     * Resize block of off-heap memory. Content of old block is copied to new one, tail of new block is not initialized.
+     * @param address Address of block.
+     * @param bytes New size of block in bytes.
+     * @return Address of new block.
+     */
+    public static long reallocateMemory(long address, long bytes) {
+        return u.reallocateMemory(address, bytes);
+    }
+
+    /**
+     * Free block of off-heap memory.
+     * @param address Address of block.
+     */
+    public static void freeMemory(long address) {
+        u.freeMemory(address);
+    }
+
+    /**
+     * Fill off-heap memory with byte value.
+     * @param address Start address.
+     * @param bytes Count in bytes.
+     * @param value Value to fill.
+     */
+    public static void setMemory(long address, long bytes, byte value) {
+        u.setMemory(address, bytes, value);
+    }
+
+    /**
+     * Get byte from object or from off-heap memory.
+     * @param base Object (null for off-heap memory).
+     * @param offset Offset in object (address for off-heap memory).
+     * @return Value by object and offset.
+     */
+    public static byte getByte(Object base, long offset) {
+        return u.getByte(base, offset);
+    }
+
+    /**
+     * Get short from object or from off-heap memory.
+     * @param base Object (null for off-heap memory).
+     * @param offset Offset in object (address for off-heap memory).
+     * @return Value by object and offset.
+     */
+    public static short getShort(Object base, long offset) {
+        return u.getShort(base, offset);
+    }
+
+    /**
+     * Get int from object or from off-heap memory.
+     * @param base Object (null for off-heap memory).
+     * @param offset Offset in object (address for off-heap memory).
+     * @return Value by object and offset.
+     */
+    public static int getInt(Object base, long offset) {
+        return u.getInt(base, offset);
+    }
+
+    /**
+     * Get long from object or from off-heap memory.
+     * @param base Object (null for off-heap memory).
+     * @param offset Offset in object (address for off-heap memory).
+     * @return Value by object and offset.
+     */
+    public static long getLong(Object base, long offset) {
+        return u.getLong(base, offset);
+    }
+
+    /**
+     * Get byte from off-heap memory.
+     * @param address Address of value.
+     * @return Value by address.
+     */
+    public static byte getByte(long address) {
+        return u.getByte(address);
+    }
+
+    /**
+     * Set byte to off-heap memory.
+     * @param address Address of value.
+     * @param value New value.
+     */
+    public static void putByte(long address, byte value) {
+        u.putByte(address, value);
+    }
+
+    /**
+     * Get short from off-heap memory.
+     * @param address Address of value.
+     * @return Value by address.
+     */
+    public static short getShort(long address) {
+        return u.getShort(address);
+    }
+
+    /**
+     * Set short to off-heap memory.
+     * @param address Address of value.
+     * @param value New value.
+     */
+    public static void putShort(long address, short value) {
+        u.putShort(address, value);
+    }
+
+    /**
+     * Get long from off-heap memory.
+     * @param address Address of value.
+     * @return Value by address.
+     */
+    public static long getLong(long address) {
+        return u.getLong(address);
+    }
+
+    /**
+     * Set long to off-heap memory.
+     * @param address Address of value.
+     * @param value New value.
+     */
+    public static void putLong(long address, long value) {
+        u.putLong(address, value);
+    }
+
+    /**
+     * Get int from off-heap memory.
+     * @param address Address of value.
+     * @return Value by address.
+     */
+    public static int getInt(long address) {
+        return u.getInt(address);
+    }
+
+    /**
+     * Set int to off-heap memory.
+     * @param address Address of value.
+     * @param value New value.
+     */
+    public static void putInt(long address, int value) {
+        u.putInt(address, value);
+    }
+
+    /**
+     * Ensure lack of reordering of loads before the fence with loads or stores after the fence.
+     */
+    public static void loadFence() {
+        u.loadFence();
+    }
+
+    /**
+     * Ensure lack of reordering of stores before the fence with loads or stores after the fence.
+     */
+    public static void storeFence() {
+        u.storeFence();
+    }
+
+}
@@ -23,4 +23,6 @@ public interface BinaryArrayOptimization {
     long xxHash64(long[] input, long length);
 
     boolean equals(long[] data1, long[] data2, int count);
+
+    boolean equals(long[] data1, long[] data2, int offset2, int count);
 }
\ No newline at end of file
@@ -349,6 +349,12 @@ public class BinaryArrayOptimizationTotal implements BinaryArrayOptimization {
         return true;
     }
 
+    @Override
+    public boolean equals(long[] data1, long[] data2, int offset2, int count) {
+        for (int i = 0; i < count; ++i) if (data1[i] != data2[offset2 + i]) return false;
+        return true;
+    }
+
     private static long finalize(long hash) {
         hash ^= hash >>> 33;
         hash *= P2;
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers.interfaces;
+
+import com.epam.deltix.containers.Hash;
+
+/**
+ * Strategy of mixing primitive keys for hash maps and hash sets.
+ * Hash maps take low bits of result, so strategy should spread entropy of key over low bits.
+ */
+@FunctionalInterface
+public interface HashStrategy {
+    /**
+     * Bits of key as is. High half of long key is folded into low half (like {@link Long#hashCode(long)}).
+     * Cheapest strategy, good for sequential keys.
+     */
+    HashStrategy IDENTITY = value -> (int) (value ^ (value >>> 32));
+
+    /**
+     * Murmur3 fmix64 finalizer. Good for clustered keys (timestamps, encoded ids).
+     */
+    HashStrategy MURMUR3 = value -> (int) Hash.fmix64(value);
+
+    /**
+     * xxHash64 of 8 bytes of key.
+     */
+    HashStrategy XXHASH = value -> (int) Hash.xxHash64(value);
+
+    /**
+     * Return hash code of key.
+     *
+     * @param value Key (primitive keys are widened to long, floating point keys are passed as raw bits).
+     * @return Hash code of key.
+     */
+    int hashCode(long value);
+}
@@ -58,4 +58,38 @@ public class BinaryArrayInputStreamTest {
         Assert.assertEquals(src2.length, stream.read(dst2));
         Assert.assertArrayEquals(src2, dst2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAppendStream() throws IOException {
+        byte[] src = new byte[100];
+        for (int i = 0; i < src.length; ++i)
+            src[i] = (byte) (i * 7);
+
+        BinaryArray ba = new BinaryArray(src);
+        BinaryArrayInputStream stream = new BinaryArrayInputStream(ba);
+        Assert.assertEquals(10, stream.skip(10));
+        byte[] dst = new byte[5];
+        Assert.assertEquals(5, stream.read(dst, 0, 5));
+        Assert.assertEquals(src[14], dst[4]);
+
+        BinaryArray copy = new BinaryArray().append(stream);
+        Assert.assertEquals(0, stream.available());
+        Assert.assertEquals(-1, stream.read(dst, 0, 5));
+        Assert.assertEquals(new BinaryArray().append(src, 15, 85), copy);
+
+        DirectBinaryArray direct = new DirectBinaryArray();
+        try {
+            stream.reset();
+            direct.append(stream);
+            Assert.assertArrayEquals(src, direct.toByteArray());
+        } finally {
+            direct.close();
+        }
+
+        stream.reset();
+        ba.append(stream);
+        Assert.assertEquals(200, ba.size());
+        for (int i = 0; i < 200; ++i)
+            Assert.assertEquals(src[i % 100], ba.getByteAt(i));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import com.epam.deltix.containers.interfaces.BinaryArrayReadOnly;
+import com.epam.deltix.dfp.Decimal64;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class BinaryArrayReaderWriterTest {
+    private static final long[] VARINTS = {0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, Integer.MIN_VALUE, -1,
+            Long.MAX_VALUE, Long.MIN_VALUE, 1L << 35, -(1L << 35)};
+
+    private static void write(BinaryArrayWriter writer, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 300; ++i) {
+            writer.writeByte((byte) random.nextInt()).writeBoolean(random.nextBoolean()).writeInt16((short) random.nextInt())
+                    .writeInt16BE((short) random.nextInt()).writeChar((char) random.nextInt()).writeInt32(random.nextInt())
+                    .writeInt32BE(random.nextInt()).writeInt64(random.nextLong()).writeInt64BE(random.nextLong())
+                    .writeSingle(random.nextFloat()).writeSingleBE(random.nextFloat())
+                    .writeDouble(random.nextDouble()).writeDoubleBE(random.nextDouble());
+            long varint = VARINTS[random.nextInt(VARINTS.length)];
+            writer.writeVarInt32((int) varint).writeVarInt64(varint).writeZigZagInt32((int) varint).writeZigZagInt64(varint)
+                    .writeString("Price €" + i).writeAsciiString("MSFT" + i).writeDecimal64(Decimal64.fromDouble(i * 0.5));
+        }
+    }
+
+    private static void read(BinaryArrayReader reader, long seed) {
+        Random random = new Random(seed);
+        MutableString string = new MutableString();
+        for (int i = 0; i < 300; ++i) {
+            Assert.assertEquals((byte) random.nextInt(), reader.readByte());
+            Assert.assertEquals(random.nextBoolean(), reader.readBoolean());
+            Assert.assertEquals((short) random.nextInt(), reader.readInt16());
+            Assert.assertEquals((short) random.nextInt(), reader.readInt16BE());
+            Assert.assertEquals((char) random.nextInt(), reader.readChar());
+            Assert.assertEquals(random.nextInt(), reader.readInt32());
+            Assert.assertEquals(random.nextInt(), reader.readInt32BE());
+            Assert.assertEquals(random.nextLong(), reader.readInt64());
+            Assert.assertEquals(random.nextLong(), reader.readInt64BE());
+            Assert.assertEquals(random.nextFloat(), reader.readSingle(), 0);
+            Assert.assertEquals(random.nextFloat(), reader.readSingleBE(), 0);
+            Assert.assertEquals(random.nextDouble(), reader.readDouble(), 0);
+            Assert.assertEquals(random.nextDouble(), reader.readDoubleBE(), 0);
+            long varint = VARINTS[random.nextInt(VARINTS.length)];
+            Assert.assertEquals((int) varint, reader.readVarInt32());
+            Assert.assertEquals(varint, reader.readVarInt64());
+            Assert.assertEquals((int) varint, reader.readZigZagInt32());
+            Assert.assertEquals(varint, reader.readZigZagInt64());
+            Assert.assertEquals("Price €" + i, reader.readString(string).toString());
+            Assert.assertEquals("MSFT" + i, reader.readAsciiString(string).toString());
+            Assert.assertEquals(Decimal64.toUnderlying(Decimal64.fromDouble(i * 0.5)), reader.readDecimal64());
+        }
+        Assert.assertFalse(reader.hasRemaining());
+    }
+
+    @Test
+    public void testRoundTrip() {
+        BinaryArray array = new BinaryArray();
+        write(new BinaryArrayWriter(array), 25);
+        BinaryArrayReader reader = new BinaryArrayReader();
+        read(reader.wrap(array), 25);
+
+        // Slice of message with header.
+        BinaryArray message = new BinaryArray().append(42).append(array);
+        read(reader.wrap(message.slice(4, array.size())), 25);
+        read(reader.wrap(message, 4, array.size()), 25);
+
+        try (DirectBinaryArray direct = new DirectBinaryArray()) {
+            write(new BinaryArrayWriter(direct), 25);
+            Assert.assertTrue(direct.equals(array));
+            read(reader.wrap(direct), 25);
+        }
+
+        // Generic array is read byte by byte.
+        BinaryArrayReadOnly generic = new BinaryArrayReadOnly() {
+            @Override
+            public byte get(int index) {
+                return array.get(index);
+            }
+
+            @Override
+            public int size() {
+                return array.size();
+            }
+
+            @Override
+            public int capacity() {
+                return array.size();
+            }
+
+            @Override
+            public BinaryArrayReadOnly clone() {
+                return this;
+            }
+        };
+        read(reader.wrap(generic), 25);
+    }
+
+    @Test
+    public void testEncoding() {
+        BinaryArray array = new BinaryArray();
+        BinaryArrayWriter writer = new BinaryArrayWriter(array);
+        writer.writeInt32BE(0x01020304).writeInt64BE(0x0102030405060708L).writeDoubleBE(Math.PI);
+        ByteBuffer expected = ByteBuffer.allocate(20).order(ByteOrder.BIG_ENDIAN);
+        expected.putInt(0x01020304).putLong(0x0102030405060708L).putDouble(Math.PI);
+        Assert.assertArrayEquals(expected.array(), array.toByteArray());
+
+        array.clear();
+        writer.writeVarInt32(300).writeZigZagInt32(-1).writeZigZagInt32(1).writeVarInt64(-1);
+        Assert.assertArrayEquals(new byte[]{(byte) 0xAC, 0x02, 0x01, 0x02, -1, -1, -1, -1, -1, -1, -1, -1, -1, 0x01},
+                array.toByteArray());
+
+        array.clear();
+        int header = writer.position();
+        writer.writeInt32(0).writeAsciiString("IBM");
+        writer.writeInt32At(header, writer.position() - header);
+        BinaryArrayReader reader = new BinaryArrayReader(array);
+        Assert.assertEquals(8, reader.readInt32());
+        Assert.assertEquals(4, reader.remaining());
+        Assert.assertEquals("IBM", reader.readAsciiString(new MutableString()).toString());
+    }
+
+    @Test
+    public void testBounds() {
+        BinaryArray array = new BinaryArray().append(7).append((byte) 0x80);
+        BinaryArrayReader reader = new BinaryArrayReader(array);
+        try {
+            reader.readInt64();
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Not enough bytes.
+        }
+        Assert.assertEquals(0, reader.position());
+        Assert.assertEquals(7, reader.readInt32());
+        try {
+            reader.readVarInt32();
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Varint is truncated.
+        }
+
+        array.clear();
+        for (int i = 0; i < 10; ++i)
+            array.append((byte) 0xFF);
+        try {
+            reader.wrap(array).readVarInt32();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // Varint is too long.
+        }
+
+        array.clear();
+        new BinaryArrayWriter(array).writeVarInt32(100).writeInt64(1);
+        try {
+            reader.wrap(array).readString(new MutableString());
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // String is longer than remaining bytes.
+        }
+        try {
+            reader.position(array.size() + 1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Position is out of limit.
+        }
+    }
+}
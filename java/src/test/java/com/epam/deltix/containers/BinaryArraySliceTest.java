@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BinaryArraySliceTest {
+    @Test
+    public void testBinaryArraySlice() {
+        Random random = new Random(24);
+        byte[] bytes = new byte[1000];
+        random.nextBytes(bytes);
+        BinaryArray parent = new BinaryArray(bytes);
+        BinaryArraySlice slice = new BinaryArraySlice();
+        BinaryArraySlice nested = new BinaryArraySlice();
+        for (int i = 0; i < 2000; ++i) {
+            int offset = random.nextInt(bytes.length);
+            int length = random.nextInt(Math.min(bytes.length - offset, 150) + 1);
+            BinaryArray expected = new BinaryArray().append(bytes, offset, length);
+            Assert.assertSame(slice, parent.slice(offset, length, slice));
+            Assert.assertEquals(length, slice.size());
+            Assert.assertArrayEquals(Arrays.copyOfRange(bytes, offset, offset + length), slice.toByteArray());
+            Assert.assertEquals(expected.hashCode(), slice.hashCode());
+            Assert.assertTrue(slice.equals(expected));
+            Assert.assertTrue(expected.equals((Object) slice));
+            Assert.assertEquals(expected, slice.clone());
+            if (length >= 8) {
+                int index = random.nextInt(length - 7);
+                Assert.assertEquals(expected.toInt64(index), slice.toInt64(index));
+                Assert.assertEquals(expected.toInt32(index), slice.toInt32(index));
+                Assert.assertEquals(expected.toInt16(index), slice.toInt16(index));
+                Assert.assertEquals(expected.toDouble(index), slice.toDouble(index), 0);
+
+                nested.wrap(slice, index, length - index);
+                BinaryArray expectedNested = new BinaryArray().append(bytes, offset + index, length - index);
+                Assert.assertEquals(expectedNested.hashCode(), nested.hashCode());
+                Assert.assertTrue(nested.equals(expectedNested));
+                Assert.assertEquals(nested.equals(slice), index == 0);
+            }
+        }
+        try {
+            slice.wrap(parent, 990, 11);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Range is out of parent.
+        }
+    }
+
+    @Test
+    public void testBinaryAsciiStringSlice() {
+        BinaryAsciiString parent = new BinaryAsciiString("MSFT,123.45,NASDAQ-GS,2021");
+        BinaryAsciiStringSlice slice = new BinaryAsciiStringSlice();
+        String[] fields = parent.toString().split(",");
+        int start = 0;
+        for (String field : fields) {
+            parent.slice(start, start + field.length(), slice);
+            Assert.assertEquals(field, slice.toString());
+            Assert.assertTrue(slice.equals(field));
+            Assert.assertEquals(new BinaryAsciiString(field).hashCode(), slice.hashCode());
+            Assert.assertTrue(slice.equals(new BinaryAsciiString(field)));
+            Assert.assertTrue(new BinaryAsciiString(field).equals((Object) slice));
+            start += field.length() + 1;
+        }
+        parent.slice(12, 21, slice);
+        Assert.assertEquals("NASDAQ", slice.subSequence(0, 6).toString());
+        Assert.assertEquals("GS", slice.subSequence(7, 9).toString());
+
+        BinaryAsciiString copy = new BinaryAsciiString();
+        slice.copyTo(copy);
+        Assert.assertEquals(copy, slice);
+
+        BinaryArray message = new BinaryArray();
+        message.append(42).append("IBM", true).append(7L);
+        slice.wrap(message, 4, 3);
+        Assert.assertEquals("IBM", slice.toString());
+        Assert.assertEquals(new BinaryAsciiString("IBM").hashCode(), slice.hashCode());
+        BinaryArraySlice field = message.slice(4, 11);
+        Assert.assertEquals(7L, field.toInt64(3));
+        slice.wrap(field, 0, 3);
+        Assert.assertTrue(slice.equals("IBM"));
+    }
+}
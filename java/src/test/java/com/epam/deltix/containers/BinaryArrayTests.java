@@ -21,6 +21,17 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 @Category(Test.class)
@@ -536,4 +547,82 @@ public class BinaryArrayTests {
         a.clear();
         assertEquals(0, a.size());
     }
+
+    @Test
+    public void testNioReadWrite() throws IOException {
+        Random random = new Random(21);
+        byte[] bytes = new byte[200003];
+        random.nextBytes(bytes);
+
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(bytes.length + 10), ByteBuffer.allocateDirect(bytes.length + 10)}) {
+            buffer.put(bytes).flip();
+            buffer.position(3);
+            BinaryArray array = new BinaryArray();
+            array.append((byte) 7);
+            array.append(buffer);
+            assertEquals(buffer.limit(), buffer.position());
+            assertEquals(bytes.length - 2, array.size());
+            assertEquals(7, array.getByteAt(0));
+            for (int i = 3; i < bytes.length; ++i)
+                assertEquals(bytes[i], array.getByteAt(i - 2));
+            assertEquals(new BinaryArray().append((byte) 7).append(bytes, 3, bytes.length - 3), array);
+
+            buffer.clear();
+            buffer.position(5);
+            array.getBytes(buffer);
+            assertEquals(5 + array.size(), buffer.position());
+            assertEquals(7, buffer.get(5));
+            for (int i = 3; i < bytes.length; ++i)
+                assertEquals(bytes[i], buffer.get(i + 3));
+            buffer.position(10);
+            array.getBytes(buffer, 100, 50);
+            assertEquals(60, buffer.position());
+            assertEquals(bytes[102], buffer.get(10));
+            try {
+                array.getBytes(buffer);
+                fail();
+            } catch (BufferOverflowException e) {
+                assertEquals(60, buffer.position());
+            }
+        }
+
+        // Many small appends of buffer.
+        BinaryArray chunked = new BinaryArray();
+        for (int i = 0; i < bytes.length; i += 7)
+            chunked.append(ByteBuffer.wrap(bytes, i, Math.min(7, bytes.length - i)));
+        assertArrayEquals(bytes, chunked.toByteArray());
+
+        BinaryArray fromStream = new BinaryArray(new ByteArrayInputStream(bytes));
+        assertArrayEquals(bytes, fromStream.toByteArray());
+
+        BinaryArray fromChannel = new BinaryArray();
+        assertEquals(1000, fromChannel.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)), 1000));
+        assertEquals(bytes.length, fromChannel.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)), Integer.MAX_VALUE));
+        assertEquals(-1, fromChannel.readFrom(Channels.newChannel(new ByteArrayInputStream(new byte[0])), 10));
+        assertEquals(bytes.length + 1000, fromChannel.size());
+        for (int i = 0; i < 1000; ++i)
+            assertEquals(bytes[i], fromChannel.getByteAt(i));
+        for (int i = 0; i < bytes.length; ++i)
+            assertEquals(bytes[i], fromChannel.getByteAt(i + 1000));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        assertEquals(fromStream.size(), fromStream.writeTo(Channels.newChannel(output)));
+        assertArrayEquals(bytes, output.toByteArray());
+
+        File file = File.createTempFile("binaryArray", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                fromStream.writeTo(channel);
+            }
+            BinaryArray fromFile = new BinaryArray();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                channel.position(10);
+                assertEquals(bytes.length - 10, fromFile.readFrom(channel, Integer.MAX_VALUE));
+                assertEquals(-1, fromFile.readFrom(channel, Integer.MAX_VALUE));
+            }
+            assertEquals(new BinaryArray().append(bytes, 10, bytes.length - 10), fromFile);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class DirectBinaryArrayTest {
+    @Test
+    public void testSameAsHeapArray() {
+        Random random = new Random(22);
+        try (DirectBinaryArray direct = new DirectBinaryArray()) {
+            BinaryArray heap = new BinaryArray();
+            for (int size = 0; size < 300; ++size) {
+                Assert.assertEquals(heap.size(), direct.size());
+                Assert.assertEquals(heap.hashCode(), direct.hashCode());
+                Assert.assertTrue(direct.equals(heap));
+                Assert.assertTrue(heap.equals(direct));
+                Assert.assertTrue(heap.equals((Object) direct));
+                Assert.assertTrue(direct.equals((Object) heap));
+                Assert.assertArrayEquals(heap.toByteArray(), direct.toByteArray());
+                byte value = (byte) random.nextInt();
+                heap.append(value);
+                direct.append(value);
+            }
+            for (int i = 0; i < 1000; ++i) {
+                switch (random.nextInt(6)) {
+                    case 0:
+                        long l = random.nextLong();
+                        heap.append(l);
+                        direct.append(l);
+                        break;
+                    case 1:
+                        int x = random.nextInt();
+                        heap.append(x);
+                        direct.append(x);
+                        break;
+                    case 2:
+                        heap.append("str" + i);
+                        direct.append("str" + i);
+                        break;
+                    case 3:
+                        int index = random.nextInt(heap.size());
+                        heap.removeAt(index);
+                        direct.removeAt(index);
+                        break;
+                    case 4:
+                        index = random.nextInt(heap.size());
+                        heap.setByteAt(index, (byte) i);
+                        direct.setByteAt(index, (byte) i);
+                        break;
+                    default:
+                        index = random.nextInt(heap.size() - 8);
+                        Assert.assertEquals(heap.toInt64(index), direct.toInt64(index));
+                        Assert.assertEquals(heap.toInt32(index), direct.toInt32(index));
+                        Assert.assertEquals(heap.toInt16(index), direct.toInt16(index));
+                        Assert.assertEquals(heap.toChar(index), direct.toChar(index));
+                        break;
+                }
+                Assert.assertEquals(heap.hashCode(), direct.hashCode());
+                Assert.assertTrue(direct.equals(heap));
+            }
+            Assert.assertEquals(heap.toString(), direct.toString());
+
+            direct.setByteAt(7, (byte) (direct.getByteAt(7) + 1));
+            Assert.assertFalse(direct.equals(heap));
+            Assert.assertFalse(heap.equals((Object) direct));
+
+            BinaryArray copy = new BinaryArray();
+            copy.assign(direct);
+            Assert.assertTrue(copy.equals(direct));
+            DirectBinaryArray clone = direct.clone();
+            Assert.assertTrue(clone.isOwner());
+            Assert.assertTrue(clone.equals(direct));
+            Assert.assertEquals(direct.hashCode(), clone.hashCode());
+            clone.close();
+        }
+    }
+
+    @Test
+    public void testInsert() {
+        try (DirectBinaryArray direct = new DirectBinaryArray(1)) {
+            direct.append(1L).append(2);
+            direct.insert(4, (short) 3);
+            direct.insert(0, "ab", true);
+            direct.insert(direct.size(), new byte[]{5, 6, 7}, 1, 2);
+            BinaryArray expected = new BinaryArray();
+            expected.append("ab", true).append(1).append((short) 3).append(0).append(2).append((byte) 6).append((byte) 7);
+            Assert.assertTrue(direct.equals(expected));
+            Assert.assertEquals(expected.hashCode(), direct.hashCode());
+        }
+    }
+
+    @Test
+    public void testAppendSlice() {
+        BinaryArray heap = new BinaryArray();
+        for (int i = 0; i < 50; ++i)
+            heap.append((byte) (i * 3));
+        try (DirectBinaryArray direct = new DirectBinaryArray(1)) {
+            direct.append((byte) 100);
+            direct.append(heap.slice(3, 29));
+            direct.append(new BinaryArraySlice().wrap(heap.slice(10, 30), 5, 0));
+            direct.append(new BinaryArraySlice().wrap(heap.slice(10, 30), 5, 20));
+            BinaryArray expected = new BinaryArray().append((byte) 100);
+            expected.append(heap.slice(3, 29)).append(heap.slice(15, 20));
+            Assert.assertEquals(50, direct.size());
+            Assert.assertTrue(direct.equals(expected));
+        }
+    }
+
+    @Test
+    public void testWrap() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ByteOrder.nativeOrder());
+        buffer.putLong(0, 123456789L).putInt(8, 42);
+        long address = UnsafeHelper.getBufferAddress(buffer);
+
+        DirectBinaryArray direct = new DirectBinaryArray(address, 12, 16);
+        Assert.assertFalse(direct.isOwner());
+        Assert.assertEquals(address, direct.getAddress());
+        Assert.assertEquals(123456789L, direct.toInt64(0));
+        Assert.assertEquals(42, direct.toInt32(8));
+        Assert.assertTrue(direct.equals(new BinaryArray().append(123456789L).append(42)));
+
+        direct.append(7);
+        Assert.assertEquals(7, buffer.getInt(12));
+        try {
+            direct.append((byte) 1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(16, direct.size());
+        }
+
+        ByteBuffer heapBuffer = ByteBuffer.allocate(20);
+        heapBuffer.position(4);
+        direct.getBytes(heapBuffer);
+        Assert.assertEquals(20, heapBuffer.position());
+        Assert.assertEquals(42, heapBuffer.order(ByteOrder.nativeOrder()).getInt(12));
+
+        direct.close();
+        Assert.assertTrue(direct.isOwner());
+        Assert.assertEquals(0, direct.size());
+        heapBuffer.position(4);
+        direct.append(heapBuffer);
+        Assert.assertEquals(16, direct.size());
+        Assert.assertEquals(123456789L, direct.toInt64(0));
+        direct.close();
+    }
+
+    @Test
+    public void testBounds() {
+        DirectBinaryArray direct = new DirectBinaryArray().append(42).append((short) 7);
+        Assert.assertEquals(7, direct.toInt16(4));
+        for (int offset : new int[]{-1, 3, 6}) {
+            try {
+                direct.toInt32(offset);
+                Assert.fail();
+            } catch (IndexOutOfBoundsException e) {
+                // Range is out of size.
+            }
+        }
+        try {
+            direct.toInt64(0);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Array is shorter than 8 bytes.
+        }
+
+        // Use after close reads nothing from freed memory.
+        direct.close();
+        try {
+            direct.getByteAt(0);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            Assert.assertEquals(0, direct.size());
+        }
+        try {
+            direct.toInt32(0);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Closed array is empty.
+        }
+        try {
+            direct.setByteAt(0, (byte) 1);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException e) {
+            // Closed array is empty.
+        }
+        direct.append(5);
+        Assert.assertEquals(5, direct.toInt32());
+        direct.close();
+    }
+}
@@ -17,11 +17,22 @@
 package com.epam.deltix.containers;
 
 import com.epam.deltix.containers.generated.*;
+import com.epam.deltix.containers.interfaces.BinaryArrayReadOnly;
+import com.epam.deltix.containers.interfaces.HashStrategy;
+import com.epam.deltix.containers.interfaces.Severity;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by DriapkoA on 29/08/2017.
@@ -606,4 +617,1440 @@ public class HashMapTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void longToLongOpenExtendedHashMapTests() {
+        LongToLongOpenHashMap myHashMap = new LongToLongOpenHashMap(-1);
+        Assert.assertEquals(-1, myHashMap.setAndGet(1, 1));
+        Assert.assertEquals(1, myHashMap.setAndGet(1, 1));
+
+        Assert.assertEquals(true, myHashMap.trySet(2, 1));
+        Assert.assertEquals(false, myHashMap.trySet(2, 1));
+
+        Assert.assertEquals(true, myHashMap.trySet(0, 5));
+        Assert.assertEquals(false, myHashMap.trySet(0, 6));
+        Assert.assertEquals(5, myHashMap.get(0));
+        Assert.assertEquals(3, myHashMap.size());
+
+        Assert.assertEquals(-1, myHashMap.get(4));
+        Assert.assertEquals(1, myHashMap.remove(2));
+        Assert.assertEquals(-1, myHashMap.remove(2));
+        Assert.assertEquals(5, myHashMap.remove(0));
+        Assert.assertFalse(myHashMap.containsKey(0));
+        Assert.assertEquals(1, myHashMap.size());
+
+        myHashMap.clear();
+        Assert.assertTrue(myHashMap.isEmpty());
+        Assert.assertEquals(LongToLongOpenHashMap.NO_ELEMENT, myHashMap.getFirst());
+    }
+
+    @Test
+    public void longToIntOpenLocateStressTest() throws Exception {
+        int numberOfIteration = 2000000;
+        LongToIntOpenHashMap myHashMap = new LongToIntOpenHashMap(-1);
+        HashMap<Long, Integer> etalon = new HashMap<>();
+        Random rand = new Random(55);
+        for (int i = 0; i < numberOfIteration; ++i) {
+            if (rand.nextInt(3) != 0) {
+                long key = (long) i << 20;
+                etalon.put(key, i);
+                long iterator = myHashMap.locateOrReserve(key);
+                myHashMap.setKeyAt(iterator, key);
+                myHashMap.setValueAt(iterator, i);
+                Assert.assertEquals(etalon.get(key).longValue(), myHashMap.get(key));
+            } else {
+                int x = rand.nextInt(i);
+                long key = (long) x << 20;
+                Assert.assertEquals(etalon.containsKey(key), myHashMap.containsKey(key));
+                if (myHashMap.containsKey(key)) {
+                    long iterator = myHashMap.locate(key);
+                    Assert.assertEquals(key, myHashMap.getKeyAt(iterator));
+                    Assert.assertEquals(x, myHashMap.getValueAt(iterator));
+                    myHashMap.removeAt(iterator);
+                    etalon.remove(key);
+                }
+                Assert.assertEquals(etalon.containsKey(key), myHashMap.containsKey(key));
+            }
+
+            if (i % 100000 == 0) {
+                int iterated = 0;
+                for (long iterator = myHashMap.getFirst(); iterator != LongToIntOpenHashMap.NO_ELEMENT; ) {
+                    long key = myHashMap.getKeyAt(iterator);
+                    Assert.assertEquals(etalon.get(key).longValue(), myHashMap.getValueAt(iterator));
+                    iterated++;
+                    if ((myHashMap.getValueAt(iterator) & 1) == 1) {
+                        etalon.remove(key);
+                        iterator = myHashMap.removeAt(iterator);
+                    } else {
+                        iterator = myHashMap.getNext(iterator);
+                    }
+                }
+                Assert.assertEquals(etalon.size(), myHashMap.size());
+                Assert.assertTrue(iterated >= etalon.size());
+                for (Map.Entry<Long, Integer> entry : etalon.entrySet()) {
+                    Assert.assertEquals(entry.getValue().longValue(), myHashMap.get(entry.getKey()));
+                }
+            }
+
+            if (i % 1000000 == 0) {
+                myHashMap.clear();
+                etalon.clear();
+            }
+        }
+    }
+
+    @Test
+    public void intToIntOpenStressTest() throws Exception {
+        int numberOfIteration = 2000000;
+        IntToIntOpenHashMap myHashMap = new IntToIntOpenHashMap(10, -1);
+        HashMap<Integer, Integer> etalon = new HashMap<>();
+        Random rand = new Random(55);
+        for (int i = 0; i < numberOfIteration; ++i) {
+            if (rand.nextInt(3) != 0) {
+                int key = rand.nextInt(1 << 18) - (1 << 17);
+                etalon.put(key, i);
+                myHashMap.set(key, i);
+                Assert.assertEquals(etalon.get(key).longValue(), myHashMap.get(key));
+            } else {
+                int key = rand.nextInt(1 << 18) - (1 << 17);
+                Assert.assertEquals(etalon.containsKey(key), myHashMap.containsKey(key));
+                Assert.assertEquals(etalon.containsKey(key), myHashMap.tryRemove(key));
+                etalon.remove(key);
+                Assert.assertFalse(myHashMap.containsKey(key));
+            }
+            Assert.assertEquals(etalon.size(), myHashMap.size());
+        }
+
+        ArrayList<Integer> iterated = new ArrayList<>();
+        for (IntIntPair pair : myHashMap) {
+            Assert.assertEquals(etalon.get(pair.getFirst()).longValue(), pair.getSecond());
+            iterated.add(pair.getFirst());
+        }
+        Assert.assertEquals(etalon.size(), iterated.size());
+        Assert.assertEquals(etalon.size(), new HashSet<>(iterated).size());
+    }
+
+    @Test
+    public void openHashMapClusteredKeysTest() {
+        // Keys are built from inverse of Fibonacci multiplier, so all of them hash to the last bucket and overflow tail.
+        long longMultiplier = 0x9E3779B97F4A7C15L;
+        long longInverse = longMultiplier;
+        int intMultiplier = 0x9E3779B9;
+        int intInverse = intMultiplier;
+        for (int i = 0; i < 5; ++i) {
+            longInverse *= 2 - longMultiplier * longInverse;
+            intInverse *= 2 - intMultiplier * intInverse;
+        }
+        LongToDoubleOpenHashMap longMap = new LongToDoubleOpenHashMap(1024, -1);
+        IntToFloatOpenHashMap intMap = new IntToFloatOpenHashMap(1024, -1);
+        // 2048 buckets: bucket is top 11 bits of product.
+        for (int i = 1; i <= 500; ++i) {
+            longMap.set(((-1L << 53) | i) * longInverse, i * 0.5);
+            intMap.set(((-1 << 21) | i) * intInverse, i * 0.5f);
+        }
+        Assert.assertEquals(1024, longMap.getCapacity());
+        Assert.assertEquals(1024, intMap.getCapacity());
+        Assert.assertEquals(500, longMap.size());
+        Assert.assertEquals(500, intMap.size());
+        for (int i = 1; i <= 500; ++i) {
+            Assert.assertEquals(i * 0.5, longMap.get(((-1L << 53) | i) * longInverse), 0);
+            Assert.assertEquals(i * 0.5f, intMap.get(((-1 << 21) | i) * intInverse), 0);
+        }
+        Assert.assertEquals(-1, longMap.get(((-1L << 53) | 501) * longInverse), 0);
+
+        // Values are kept as raw bits next to keys.
+        longMap.set(0, Double.NaN);
+        longMap.set(7, -0.0);
+        Assert.assertTrue(Double.isNaN(longMap.get(0)));
+        Assert.assertEquals(Double.doubleToRawLongBits(-0.0), Double.doubleToRawLongBits(longMap.get(7)));
+    }
+
+    @Test
+    public void hashStrategyStressTest() throws Exception {
+        HashStrategy[] strategies = {HashStrategy.IDENTITY, HashStrategy.MURMUR3, HashStrategy.XXHASH};
+        for (HashStrategy strategy : strategies) {
+            LongToLongHashMap myHashMap = new LongToLongHashMap(4, -1, strategy);
+            LongToObjHashMap<Long> myObjHashMap = new LongToObjHashMap<>(4, null, strategy);
+            LongHashSet myHashSet = new LongHashSet(4, strategy);
+            Assert.assertSame(strategy, myHashMap.getHashStrategy());
+            HashMap<Long, Long> etalon = new HashMap<>();
+            Random rand = new Random(55);
+            for (int i = 0; i < 300000; ++i) {
+                // Clustered keys: low bits are always zero.
+                long key = ((long) rand.nextInt(1 << 12)) << 20;
+                if (rand.nextInt(3) != 0) {
+                    etalon.put(key, (long) i);
+                    myHashMap.set(key, i);
+                    myObjHashMap.set(key, (long) i);
+                    myHashSet.put(key);
+                } else {
+                    Assert.assertEquals(etalon.containsKey(key), myHashMap.tryRemove(key));
+                    Assert.assertEquals(etalon.containsKey(key), myObjHashMap.tryRemove(key));
+                    Assert.assertEquals(etalon.containsKey(key), myHashSet.remove(key));
+                    etalon.remove(key);
+                }
+                if (i % 1000 == 0) {
+                    myHashMap.setCapacity(myHashMap.getCapacity() + 3);
+                    myObjHashMap.setCapacity(myObjHashMap.getCapacity() + 3);
+                    myHashSet.setCapacity(myHashSet.getCapacity() + 3);
+                }
+                Assert.assertEquals(etalon.size(), myHashMap.size());
+                Assert.assertEquals(etalon.size(), myObjHashMap.size());
+                Assert.assertEquals(etalon.size(), myHashSet.size());
+            }
+            for (Map.Entry<Long, Long> entry : etalon.entrySet()) {
+                Assert.assertEquals(entry.getValue().longValue(), myHashMap.get(entry.getKey()));
+                Assert.assertEquals(entry.getValue(), myObjHashMap.get(entry.getKey()));
+                Assert.assertTrue(myHashSet.containsKey(entry.getKey()));
+            }
+            int iterated = 0;
+            for (LongLongPair pair : myHashMap) {
+                Assert.assertEquals(etalon.get(pair.getFirst()).longValue(), pair.getSecond());
+                iterated++;
+            }
+            Assert.assertEquals(etalon.size(), iterated);
+        }
+    }
+
+    @Test
+    public void xxHash64OfLongTest() {
+        Random rand = new Random(55);
+        for (int i = 0; i < 10000; ++i) {
+            long value = rand.nextLong();
+            Assert.assertEquals(Hash.xxHash64(new long[]{value}, 0, 8), Hash.xxHash64(value));
+        }
+    }
+
+    @Test
+    public void longToLongOffHeapStressTest() throws Exception {
+        int numberOfIteration = 1000000;
+        try (LongToLongOffHeapHashMap myHashMap = new LongToLongOffHeapHashMap(3, -1, HashStrategy.MURMUR3)) {
+            HashMap<Long, Long> etalon = new HashMap<>();
+            Random rand = new Random(55);
+            for (int i = 0; i < numberOfIteration; ++i) {
+                long key = rand.nextInt(1 << 16) - (1 << 15);
+                int operation = rand.nextInt(4);
+                if (operation == 0) {
+                    Assert.assertEquals(etalon.containsKey(key), myHashMap.tryRemove(key));
+                    etalon.remove(key);
+                } else if (operation == 1) {
+                    long iterator = myHashMap.locateOrReserve(key);
+                    if (etalon.containsKey(key)) {
+                        Assert.assertEquals(etalon.get(key).longValue(), myHashMap.getValueAt(iterator));
+                    }
+                    myHashMap.setValueAt(iterator, i);
+                    etalon.put(key, (long) i);
+                } else {
+                    Assert.assertEquals(etalon.containsKey(key) ? etalon.get(key).longValue() : -1, myHashMap.setAndGet(key, i));
+                    etalon.put(key, (long) i);
+                }
+                if (i % 100000 == 0) myHashMap.setCapacity(myHashMap.getCapacity() + 1);
+                Assert.assertEquals(etalon.size(), myHashMap.size());
+            }
+            for (Map.Entry<Long, Long> entry : etalon.entrySet()) {
+                Assert.assertEquals(entry.getValue().longValue(), myHashMap.get(entry.getKey()));
+            }
+
+            int iterated = 0;
+            int sizeBeforeRemoval = etalon.size();
+            for (Iterator<LongLongPair> iterator = myHashMap.iterator(); iterator.hasNext(); ) {
+                LongLongPair pair = iterator.next();
+                Assert.assertEquals(etalon.get(pair.getFirst()).longValue(), pair.getSecond());
+                iterated++;
+                if ((pair.getFirst() & 1) == 0) {
+                    iterator.remove();
+                    etalon.remove(pair.getFirst());
+                }
+            }
+            Assert.assertEquals(sizeBeforeRemoval, iterated);
+            Assert.assertEquals(etalon.size(), myHashMap.size());
+            int unsafeIterated = 0;
+            for (int it = myHashMap.getUnsafeFirst(); it != LongToLongOffHeapHashMap.NO_ELEMENT; it = myHashMap.getUnsafeNext(it)) {
+                Assert.assertEquals(etalon.get(myHashMap.getKeyByUnsafeIterator(it)).longValue(), myHashMap.getValueByUnsafeIterator(it));
+                unsafeIterated++;
+            }
+            Assert.assertEquals(etalon.size(), unsafeIterated);
+            myHashMap.clear();
+            Assert.assertTrue(myHashMap.isEmpty());
+            Assert.assertFalse(myHashMap.containsKey(0));
+        }
+    }
+
+    @Test
+    public void longToIntOffHeapTest() {
+        LongToIntOffHeapHashMap myHashMap = new LongToIntOffHeapHashMap(-1);
+        for (int i = 0; i < 100000; ++i) myHashMap.set((long) i << 32, i);
+        for (int i = 0; i < 100000; ++i) Assert.assertEquals(i, myHashMap.get((long) i << 32));
+        Assert.assertEquals(-1, myHashMap.get(1));
+        Assert.assertEquals(100000 - 1, myHashMap.remove((long) (100000 - 1) << 32));
+        Assert.assertEquals(100000 - 1, myHashMap.size());
+        Assert.assertTrue(myHashMap.getAllocatedMemory() > 0);
+        myHashMap.close();
+        myHashMap.close();
+        Assert.assertEquals(0, myHashMap.getAllocatedMemory());
+    }
+
+    @Test
+    public void offHeapUseAfterCloseTest() {
+        LongToLongOffHeapHashMap myHashMap = new LongToLongOffHeapHashMap(-1);
+        myHashMap.set(1, 2);
+        long iterator = myHashMap.locate(1);
+        myHashMap.close();
+        Assert.assertEquals(0, myHashMap.size());
+        Assert.assertEquals(LongToLongOffHeapHashMap.NO_ELEMENT, myHashMap.getFirst());
+        Assert.assertEquals(LongToLongOffHeapHashMap.NO_ELEMENT, myHashMap.getUnsafeFirst());
+        try {
+            myHashMap.get(1);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // HashMap is closed.
+        }
+        try {
+            myHashMap.set(3, 4);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // HashMap is closed.
+        }
+        try {
+            myHashMap.getValueAt(iterator);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // Iterator was taken before close.
+        }
+        Assert.assertEquals(0, myHashMap.getAllocatedMemory());
+    }
+
+    @Test
+    public void incrementalResizeStressTest() throws Exception {
+        LongToLongHashMap myHashMap = new LongToLongHashMap(2, -1);
+        LongToObjHashMap<Long> myObjHashMap = new LongToObjHashMap<>(2, null);
+        ObjToObjHashMap<Long, Long> objToObjHashMap = new ObjToObjHashMap<>(2, null);
+        ObjToLongHashMap<Long> objToLongHashMap = new ObjToLongHashMap<>(2, -1);
+        myHashMap.setIncrementalResize(true);
+        myObjHashMap.setIncrementalResize(true);
+        objToObjHashMap.setIncrementalResize(true);
+        objToLongHashMap.setIncrementalResize(true);
+        Assert.assertTrue(myHashMap.isIncrementalResize());
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(55);
+        int resizingSteps = 0;
+        for (int i = 0; i < 1000000; ++i) {
+            long key = rand.nextInt(1 << 18);
+            int operation = rand.nextInt(4);
+            if (operation == 0) {
+                boolean contains = etalon.containsKey(key);
+                Assert.assertEquals(contains, myHashMap.tryRemove(key));
+                Assert.assertEquals(contains, myObjHashMap.tryRemove(key));
+                Assert.assertEquals(contains, objToObjHashMap.tryRemove(key));
+                Assert.assertEquals(contains, objToLongHashMap.tryRemove(key));
+                etalon.remove(key);
+            } else if (operation == 1) {
+                long iterator = myHashMap.locateOrReserve(key);
+                myHashMap.setValueAt(iterator, i);
+                myHashMap.setKeyAt(iterator, key);
+                myObjHashMap.set(key, (long) i);
+                objToObjHashMap.set(key, (long) i);
+                objToLongHashMap.set(key, i);
+                etalon.put(key, (long) i);
+            } else {
+                long expected = etalon.containsKey(key) ? etalon.get(key) : -1;
+                Assert.assertEquals(expected, myHashMap.get(key));
+                Assert.assertEquals(expected, objToLongHashMap.get(key));
+                Assert.assertEquals(etalon.get(key), myObjHashMap.get(key));
+                Assert.assertEquals(etalon.get(key), objToObjHashMap.get(key));
+            }
+            if (myHashMap.isResizing()) resizingSteps++;
+            Assert.assertEquals(etalon.size(), myHashMap.size());
+            Assert.assertEquals(etalon.size(), objToObjHashMap.size());
+        }
+        Assert.assertTrue(resizingSteps > 0);
+
+        boolean resizing = objToObjHashMap.isResizing();
+        int iterated = 0;
+        for (long it = objToObjHashMap.getFirst(); it != ObjToObjHashMap.NO_ELEMENT; it = objToObjHashMap.getNext(it)) {
+            Assert.assertEquals(etalon.get(objToObjHashMap.getKeyAt(it)), objToObjHashMap.getValueAt(it));
+            iterated++;
+        }
+        Assert.assertEquals(etalon.size(), iterated);
+        Assert.assertEquals(resizing, objToObjHashMap.isResizing());
+
+        myHashMap.setIncrementalResize(false);
+        Assert.assertFalse(myHashMap.isResizing());
+        for (Map.Entry<Long, Long> entry : etalon.entrySet()) {
+            Assert.assertEquals(entry.getValue().longValue(), myHashMap.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void incrementalResizePagesTest() {
+        ObjToObjHashMap<Long, Long> map = new ObjToObjHashMap<>(null);
+        map.setIncrementalResize(true);
+        long key = 0;
+        while (map.size() < 8192) {
+            map.set(key, key);
+            key++;
+        }
+        Object[] page = map.keyPages[1];
+        map.set(key, key);
+        key++;
+        // Growth adds pages, filled pages are not copied.
+        Assert.assertSame(page, map.keyPages[1]);
+        Assert.assertTrue(map.isResizing());
+        int migrated = map.migrated;
+        for (long i = 0; i < key; ++i) {
+            Assert.assertEquals(Long.valueOf(i), map.get(i));
+            Assert.assertTrue(map.containsKey(i));
+        }
+        Assert.assertEquals(-1, map.locate(key));
+        // Lookups don't split buckets.
+        Assert.assertEquals(migrated, map.migrated);
+        while (map.isResizing()) {
+            map.set(key, key);
+            key++;
+        }
+        for (long i = 0; i < key; ++i) {
+            Assert.assertEquals(Long.valueOf(i), map.get(i));
+        }
+        Assert.assertEquals(key, map.size());
+    }
+
+    @Test
+    public void forEachAndRemoveIfTest() {
+        LongToDoubleHashMap myHashMap = new LongToDoubleHashMap(-1);
+        LongToDoubleOpenHashMap myOpenHashMap = new LongToDoubleOpenHashMap(-1);
+        ObjToObjHashMap<Long, Double> objToObjHashMap = new ObjToObjHashMap<>(null);
+        HashMap<Long, Double> etalon = new HashMap<>();
+        Random rand = new Random(55);
+        for (int i = 0; i < 100000; ++i) {
+            long key = rand.nextInt(1 << 16) - (1 << 15);
+            double value = rand.nextDouble();
+            etalon.put(key, value);
+            myHashMap.set(key, value);
+            myOpenHashMap.set(key, value);
+            objToObjHashMap.set(key, value);
+            if (rand.nextInt(4) == 0) {
+                etalon.remove(key);
+                myHashMap.remove(key);
+                myOpenHashMap.remove(key);
+                objToObjHashMap.remove(key);
+            }
+        }
+
+        HashMap<Long, Double> visited = new HashMap<>();
+        myHashMap.forEach((long key, double value) -> Assert.assertNull(visited.put(key, value)));
+        Assert.assertEquals(etalon, visited);
+        visited.clear();
+        myOpenHashMap.forEach((long key, double value) -> Assert.assertNull(visited.put(key, value)));
+        Assert.assertEquals(etalon, visited);
+        visited.clear();
+        objToObjHashMap.forEach((Object key, Object value) -> Assert.assertNull(visited.put((Long) key, (Double) value)));
+        Assert.assertEquals(etalon, visited);
+
+        long[] keySum = new long[1];
+        double[] valueSum = new double[1];
+        myOpenHashMap.forEachKey((long key) -> keySum[0] += key);
+        myHashMap.forEachValue((double value) -> valueSum[0] += value);
+        long expectedKeySum = 0;
+        double expectedValueSum = 0;
+        for (Map.Entry<Long, Double> entry : etalon.entrySet()) {
+            expectedKeySum += entry.getKey();
+            expectedValueSum += entry.getValue();
+        }
+        Assert.assertEquals(expectedKeySum, keySum[0]);
+        Assert.assertEquals(expectedValueSum, valueSum[0], 1e-6);
+
+        Assert.assertTrue(myHashMap.removeIf((long key, double value) -> key % 3 == 0 || value < 0.25));
+        Assert.assertTrue(myOpenHashMap.removeIf((long key, double value) -> key % 3 == 0 || value < 0.25));
+        Assert.assertTrue(objToObjHashMap.removeIf((Object key, Object value) -> (Long) key % 3 == 0 || (Double) value < 0.25));
+        etalon.entrySet().removeIf(entry -> entry.getKey() % 3 == 0 || entry.getValue() < 0.25);
+        Assert.assertFalse(myHashMap.removeIf((long key, double value) -> key % 3 == 0));
+        Assert.assertEquals(etalon.size(), myHashMap.size());
+        Assert.assertEquals(etalon.size(), myOpenHashMap.size());
+        Assert.assertEquals(etalon.size(), objToObjHashMap.size());
+        for (Map.Entry<Long, Double> entry : etalon.entrySet()) {
+            Assert.assertEquals(entry.getValue(), myHashMap.get(entry.getKey()), 0);
+            Assert.assertEquals(entry.getValue(), myOpenHashMap.get(entry.getKey()), 0);
+            Assert.assertEquals(entry.getValue(), objToObjHashMap.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void concurrentHashMapStressTest() throws Exception {
+        final int threadCount = 8;
+        final int keysPerThread = 20000;
+        final LongToObjConcurrentHashMap<Long> map = new LongToObjConcurrentHashMap<>(16, 4, null);
+        final ObjToObjConcurrentHashMap<Long, Long> objMap = new ObjToObjConcurrentHashMap<>(16, 4, null);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; ++t) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    Random rand = new Random(id);
+                    for (int iteration = 0; iteration < 3; ++iteration) {
+                        for (long i = 0; i < keysPerThread; ++i) {
+                            long key = i * threadCount + id;
+                            map.set(key, key * 3);
+                            objMap.set(key, key * 3);
+                            // Keys of other threads are either absent or have consistent values.
+                            long other = rand.nextInt(keysPerThread * threadCount);
+                            Long value = map.get(other);
+                            Assert.assertTrue(value == null || value == other * 3);
+                            value = objMap.get(other);
+                            Assert.assertTrue(value == null || value == other * 3);
+                            Assert.assertTrue(map.containsKey(key));
+                            Assert.assertTrue(objMap.containsKey(key));
+                        }
+                        for (long i = 0; i < keysPerThread; i += 2) {
+                            long key = i * threadCount + id;
+                            Assert.assertEquals(Long.valueOf(key * 3), map.remove(key));
+                            Assert.assertTrue(objMap.tryRemove(key));
+                        }
+                        for (long i = 0; i < keysPerThread; ++i) {
+                            long key = i * threadCount + id;
+                            Assert.assertEquals(i % 2 == 0 ? null : Long.valueOf(key * 3), map.get(key));
+                            Assert.assertEquals(i % 2 == 0 ? null : Long.valueOf(key * 3), objMap.get(key));
+                            Assert.assertEquals(i % 2 != 0, map.containsKey(key));
+                            Assert.assertEquals(i % 2 != 0, objMap.containsKey(key));
+                        }
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        if (error.get() != null) throw new AssertionError(error.get());
+        Assert.assertEquals(threadCount * keysPerThread / 2, map.size());
+        Assert.assertEquals(threadCount * keysPerThread / 2, objMap.size());
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void seqLockHashMapTest() throws Exception {
+        final LongToObjSeqLockHashMap<Long> map = new LongToObjSeqLockHashMap<>(2, null);
+        final int keyCount = 1 << 14;
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final AtomicBoolean stop = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int t = 0; t < readers.length; ++t) {
+            final int id = t;
+            readers[t] = new Thread(() -> {
+                try {
+                    Random rand = new Random(id);
+                    while (!stop.get()) {
+                        long key = rand.nextInt(keyCount);
+                        Long value = map.get(key);
+                        // Writer stores only key * 5 + generation, generation < 5.
+                        Assert.assertTrue(value == null || value / 5 == key);
+                        if (value != null) Assert.assertTrue(map.size() > 0);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            readers[t].start();
+        }
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(55);
+        for (int i = 0; i < 1000000; ++i) {
+            long key = rand.nextInt(keyCount);
+            if (rand.nextInt(3) == 0) {
+                Assert.assertEquals(etalon.remove(key), map.remove(key));
+            } else {
+                long value = key * 5 + rand.nextInt(5);
+                etalon.put(key, value);
+                map.set(key, value);
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) reader.join();
+        if (error.get() != null) throw new AssertionError(error.get());
+        Assert.assertEquals(etalon.size(), map.size());
+        for (long key = 0; key < keyCount; ++key) {
+            Assert.assertEquals(etalon.get(key), map.get(key));
+            Assert.assertEquals(etalon.containsKey(key), map.containsKey(key));
+        }
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void charSequenceArenaHashMapStressTest() {
+        CharSequenceToIntArenaHashMap map = new CharSequenceToIntArenaHashMap(1, 1, -1, HashStrategy.MURMUR3);
+        CharSequenceToObjArenaHashMap<String> objMap = new CharSequenceToObjArenaHashMap<>(null);
+        HashMap<String, Integer> etalon = new HashMap<>();
+        MutableString key = new MutableString();
+        Random rand = new Random(77);
+        for (int i = 0; i < 300000; ++i) {
+            key.clear();
+            int length = rand.nextInt(12);
+            for (int j = 0; j < length; ++j) key.append((char) ('a' + rand.nextInt(3)));
+            String keyString = key.toString();
+            int operation = rand.nextInt(5);
+            if (operation == 0) {
+                Integer expected = etalon.remove(keyString);
+                Assert.assertEquals(expected == null ? -1 : expected.intValue(), map.remove(key));
+                Assert.assertEquals(expected == null ? null : keyString, objMap.remove(key));
+            } else if (operation == 1) {
+                Assert.assertEquals(etalon.containsKey(keyString), map.containsKey(key));
+                Assert.assertEquals(etalon.containsKey(keyString), objMap.containsKey(key));
+            } else {
+                etalon.put(keyString, i);
+                map.set(key, i);
+                objMap.set(key, keyString);
+                // Key is copied into arena, so mutation of caller's string doesn't affect map.
+                key.append('#');
+            }
+            Assert.assertEquals(etalon.size(), map.size());
+            if (i % 10000 == 0) map.clear();
+            if (i % 10000 == 0) objMap.clear();
+            if (i % 10000 == 0) etalon.clear();
+        }
+        int found = 0;
+        MutableString iteratorKey = new MutableString();
+        for (long it = map.getFirst(); it != CharSequenceToIntArenaHashMap.NO_ELEMENT; it = map.getNext(it)) {
+            String k = map.getKeyAt(it, iteratorKey).toString();
+            Assert.assertEquals(etalon.get(k).intValue(), map.getValueAt(it));
+            Assert.assertEquals(k, objMap.get(k));
+            Assert.assertEquals(k.length(), map.getKeyLengthAt(it));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+        map.clear();
+        int arenaCapacity = map.getArenaCapacity();
+        for (int i = 0; i < 100000; ++i) {
+            key.clear().append("key").append(i % 7);
+            map.set(key, i);
+            map.remove(key);
+        }
+        // Garbage of removed keys is compacted instead of growing arena.
+        Assert.assertEquals(arenaCapacity, map.getArenaCapacity());
+    }
+
+    @Test
+    public void binaryArrayHashMapStressTest() {
+        BinaryArrayToLongHashMap map = new BinaryArrayToLongHashMap(1, 1, -1);
+        BinaryArrayToObjHashMap<String> objMap = new BinaryArrayToObjHashMap<>(null);
+        HashMap<BinaryArray, Long> etalon = new HashMap<>();
+        BinaryArray key = new BinaryArray();
+        final byte[] bytes = new byte[100];
+        final int[] length = new int[1];
+        // Lookup by BinaryArrayReadOnly which is not BinaryArray.
+        BinaryArrayReadOnly view = new BinaryArrayReadOnly() {
+            public BinaryArrayReadOnly clone() { return this; }
+            public byte get(int index) { return bytes[index]; }
+            public int size() { return length[0]; }
+            public int capacity() { return bytes.length; }
+        };
+        Random rand = new Random(17);
+        for (int i = 0; i < 300000; ++i) {
+            length[0] = rand.nextInt(4) == 0 ? rand.nextInt(100) : rand.nextInt(3);
+            for (int j = 0; j < length[0]; ++j) bytes[j] = (byte) rand.nextInt(2);
+            key.clear();
+            key.append(bytes, 0, length[0]);
+            BinaryArray etalonKey = new BinaryArray(key);
+            int operation = rand.nextInt(5);
+            if (operation == 0) {
+                Long expected = etalon.remove(etalonKey);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), map.remove(rand.nextBoolean() ? key : view));
+                Assert.assertEquals(expected == null ? null : etalonKey.toString(), objMap.remove(key));
+            } else if (operation == 1) {
+                Assert.assertEquals(etalon.containsKey(etalonKey), map.containsKey(view));
+                Assert.assertEquals(etalon.containsKey(etalonKey), objMap.containsKey(key));
+                Assert.assertEquals(etalon.containsKey(etalonKey) ? etalon.get(etalonKey).longValue() : -1, map.get(key));
+            } else {
+                etalon.put(etalonKey, (long) i);
+                map.set(rand.nextBoolean() ? key : view, i);
+                objMap.set(view, etalonKey.toString());
+            }
+            Assert.assertEquals(etalon.size(), map.size());
+            Assert.assertEquals(etalon.size(), objMap.size());
+            if (i % 50000 == 0) {
+                map.clear();
+                objMap.clear();
+                etalon.clear();
+            }
+        }
+        int found = 0;
+        BinaryArray iteratorKey = new BinaryArray();
+        for (long it = map.getFirst(); it != BinaryArrayToLongHashMap.NO_ELEMENT; it = map.getNext(it)) {
+            map.getKeyAt(it, iteratorKey);
+            Assert.assertEquals(etalon.get(iteratorKey).longValue(), map.getValueAt(it));
+            Assert.assertEquals(iteratorKey.getCount(), map.getKeyLengthAt(it));
+            Assert.assertEquals(iteratorKey.toString(), objMap.get(iteratorKey));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+        // Fresh empty BinaryArray, cleared BinaryArray and empty view are the same key.
+        map.set(new BinaryArray(), 5);
+        length[0] = 0;
+        Assert.assertEquals(5, map.get(view));
+        Assert.assertEquals(5, map.get(new BinaryArray(4).append((byte) 1).clear()));
+    }
+
+    @Test
+    public void snapshotTest() throws Exception {
+        LongToLongHashMap map = new LongToLongHashMap(1, -1, HashStrategy.MURMUR3);
+        FloatToBoolHashMap floatMap = new FloatToBoolHashMap(true);
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(31);
+        for (int i = 0; i < 200000; ++i) {
+            long key = rand.nextInt(100000);
+            if (rand.nextInt(4) == 0) {
+                map.remove(key);
+                etalon.remove(key);
+            } else {
+                map.set(key, i);
+                etalon.put(key, (long) i);
+            }
+            floatMap.set(key * 0.5f, (key & 1) == 0);
+        }
+        File file = File.createTempFile("hashmap", ".snapshot");
+        file.deleteOnExit();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            map.writeTo(channel);
+            floatMap.writeTo(channel);
+            new IntToIntHashMap(0, value -> (int) value).writeTo(channel);
+        }
+        long floatMapPosition;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            LongToLongHashMap restored = LongToLongHashMap.readFrom(channel);
+            floatMapPosition = channel.position();
+            FloatToBoolHashMap restoredFloatMap = FloatToBoolHashMap.readFrom(channel);
+            try {
+                IntToIntHashMap.readFrom(channel);
+                Assert.fail("Custom hash strategy can't be restored implicitly");
+            } catch (IOException e) {
+                // expected
+            }
+            Assert.assertEquals(HashStrategy.MURMUR3, restored.getHashStrategy());
+            Assert.assertEquals(etalon.size(), restored.size());
+            Assert.assertEquals(floatMap.size(), restoredFloatMap.size());
+            Assert.assertTrue(restoredFloatMap.get(-1.0f));
+            for (long key = 0; key < 100000; ++key) {
+                Assert.assertEquals(etalon.containsKey(key) ? etalon.get(key).longValue() : -1, restored.get(key));
+                Assert.assertEquals(floatMap.get(key * 0.5f), restoredFloatMap.get(key * 0.5f));
+            }
+            // Restored hashmap is fully functional.
+            for (long key = 0; key < 100000; ++key) {
+                restored.set(key + 100000, key);
+                restored.remove(key);
+            }
+            Assert.assertEquals(100000, restored.size());
+            Assert.assertEquals(5, restored.get(100005));
+
+            LongToLongMappedHashMap mapped = LongToLongMappedHashMap.open(channel, 0);
+            Assert.assertEquals(etalon.size(), mapped.size());
+            for (long key = 0; key < 100000; ++key) {
+                Assert.assertEquals(etalon.containsKey(key), mapped.containsKey(key));
+                Assert.assertEquals(etalon.containsKey(key) ? etalon.get(key).longValue() : -1, mapped.get(key));
+            }
+            try {
+                LongToIntMappedHashMap.open(channel, floatMapPosition);
+                Assert.fail("Snapshot of FloatToBoolHashMap can't be opened as LongToInt");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void snapshotCorruptedHeaderTest() throws IOException {
+        LongToLongHashMap map = new LongToLongHashMap(-1);
+        for (long key = 0; key < 100; ++key) map.set(key, key);
+        File file = File.createTempFile("hashmap", ".snapshot");
+        file.deleteOnExit();
+        // Offsets of key type, value type, capacity, count, head and bucket count in header.
+        int[] offsets = {8, 12, 20, 24, 28, 32, 32};
+        int[] values = {1000, -1, -1, 1 << 20, -5, 3, 0};
+        for (int i = 0; i < offsets.length; ++i) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                map.writeTo(channel);
+                ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(values[i]).flip();
+                channel.write(buffer, offsets[i]);
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                LongToLongHashMap.readFrom(channel);
+                Assert.fail("Corrupted header at offset " + offsets[i] + " must be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                LongToLongMappedHashMap.open(channel, 0);
+                Assert.fail("Corrupted header at offset " + offsets[i] + " must be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void swissHashMapStressTest() {
+        LongToLongSwissHashMap longMap = new LongToLongSwissHashMap(1, -1);
+        IntToObjSwissHashMap<String> intMap = new IntToObjSwissHashMap<>(null);
+        CharSequenceToIntSwissHashMap stringMap = new CharSequenceToIntSwissHashMap(-1);
+        ObjToObjSwissHashMap<Long, Long> objMap = new ObjToObjSwissHashMap<>(4, null, HashStrategy.IDENTITY);
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(99);
+        for (int i = 0; i < 500000; ++i) {
+            // Small key range after growth keeps many tombstones in table.
+            long key = rand.nextInt(i < 200000 ? 100000 : 1000);
+            int operation = rand.nextInt(3);
+            if (operation == 0) {
+                Long expected = etalon.remove(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.remove(key));
+                Assert.assertEquals(expected == null ? null : expected.toString(), intMap.remove((int) key));
+                Assert.assertEquals(expected != null, stringMap.tryRemove(Long.toString(key)));
+                Assert.assertEquals(expected, objMap.remove(key));
+            } else if (operation == 1) {
+                boolean contains = etalon.containsKey(key);
+                Assert.assertEquals(contains, longMap.containsKey(key));
+                Assert.assertEquals(contains, intMap.containsKey((int) key));
+                Assert.assertEquals(contains ? etalon.get(key).intValue() : -1, stringMap.get(new MutableString().append(key)));
+                Assert.assertEquals(etalon.get(key), objMap.get(key));
+            } else {
+                etalon.put(key, (long) i);
+                longMap.set(key, i);
+                intMap.set((int) key, Long.toString(i));
+                stringMap.set(Long.toString(key), i);
+                objMap.set(key, (long) i);
+            }
+            Assert.assertEquals(etalon.size(), longMap.size());
+            Assert.assertEquals(etalon.size(), intMap.size());
+            Assert.assertEquals(etalon.size(), stringMap.size());
+            Assert.assertEquals(etalon.size(), objMap.size());
+        }
+        int found = 0;
+        for (long it = longMap.getFirst(); it != LongToLongSwissHashMap.NO_ELEMENT; it = longMap.getNext(it)) {
+            Assert.assertEquals(etalon.get(longMap.getKeyAt(it)).longValue(), longMap.getValueAt(it));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+        longMap.clear();
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertEquals(-1, longMap.get(1));
+    }
+
+    @Test
+    public void statisticsTest() {
+        LongToLongHashMap map = new LongToLongHashMap(1024, -1, HashStrategy.IDENTITY);
+        // Keys are multiples of bucket count, so all of them are in one chain.
+        for (long i = 0; i < 100; ++i) map.set(i << 10, i);
+        for (long i = 0; i < 100; ++i) map.set(i + 1, i);
+        HashMapStatistics statistics = map.getStatistics();
+        Assert.assertEquals(1024, statistics.getBucketCount());
+        Assert.assertEquals(100, statistics.getMaxChainLength());
+        Assert.assertEquals(200.0 / 101, statistics.getAverageChainLength(), 1e-9);
+
+        final ArrayList<String> messages = new ArrayList<>();
+        statistics.setLogger((sender, severity, exception, message) -> messages.add(severity + " " + message));
+        statistics.log(map);
+        Assert.assertEquals(1, messages.size());
+        Assert.assertTrue(messages.get(0).startsWith("WARNING buckets=1024 used=101 maxChain=100"));
+        statistics.setMaxChainLengthToWarn(100);
+        statistics.log(map);
+        Assert.assertEquals(1, messages.size());
+
+        ObjToObjHashMap<String, String> objMap = new ObjToObjHashMap<>(null);
+        for (int i = 0; i < 1000; ++i) objMap.set("key" + i, "value");
+        statistics = objMap.getStatistics();
+        statistics.setMinimalSeverityToLog(Severity.INFO);
+        statistics.setLogger((sender, severity, exception, message) -> messages.add(severity + " " + message));
+        statistics.log(objMap);
+        Assert.assertEquals(2, messages.size());
+        Assert.assertTrue(messages.get(1).startsWith("INFO"));
+        Assert.assertTrue(statistics.getMaxChainLength() < 16);
+        if (HashMapStatistics.ENABLED) {
+            Assert.assertEquals(1000, statistics.getLookupCount());
+            Assert.assertTrue(statistics.getResizeCount() > 0);
+            statistics.reset();
+            for (int i = 0; i < 1000; ++i) objMap.get("key" + i);
+            Assert.assertEquals(1000, statistics.getLookupCount());
+            // Lookups of set, containsKey and remove are recorded too.
+            for (int i = 0; i < 1000; ++i) objMap.set("key" + i, "other");
+            Assert.assertTrue(objMap.containsKey("key1"));
+            objMap.remove("key0");
+            Assert.assertEquals(2002, statistics.getLookupCount());
+
+            statistics = map.getStatistics();
+            statistics.reset();
+            map.addTo(1, 5);
+            map.addTo(5000, 5);
+            Assert.assertEquals(2, statistics.getLookupCount());
+            Assert.assertEquals(1, statistics.getLookupCount(0));
+            Assert.assertEquals(1, statistics.getLookupCount(1));
+        }
+    }
+
+    @Test
+    public void cuckooHashMapStressTest() {
+        LongToLongCuckooHashMap longMap = new LongToLongCuckooHashMap(1, -1);
+        IntToDoubleCuckooHashMap intMap = new IntToDoubleCuckooHashMap(-1);
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(101);
+        for (int i = 0; i < 500000; ++i) {
+            long key = rand.nextInt(i < 200000 ? 100000 : 1000);
+            int operation = rand.nextInt(3);
+            if (operation == 0) {
+                Long expected = etalon.remove(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.remove(key));
+                Assert.assertEquals(expected != null, intMap.tryRemove((int) key));
+            } else if (operation == 1) {
+                Long expected = etalon.get(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.get(key));
+                Assert.assertEquals(expected == null ? -1 : expected.doubleValue(), intMap.get((int) key), 0);
+                Assert.assertEquals(expected != null, longMap.locate(key) != LongToLongCuckooHashMap.NO_ELEMENT);
+            } else {
+                etalon.put(key, (long) i);
+                longMap.set(key, i);
+                intMap.set((int) key, i);
+            }
+            Assert.assertEquals(etalon.size(), longMap.size());
+            Assert.assertEquals(etalon.size(), intMap.size());
+        }
+        int found = 0;
+        for (long it = longMap.getFirst(); it != LongToLongCuckooHashMap.NO_ELEMENT; it = longMap.getNext(it)) {
+            Assert.assertEquals(etalon.get(longMap.getKeyAt(it)).longValue(), longMap.getValueAt(it));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+        for (long it = longMap.getFirst(); it != LongToLongCuckooHashMap.NO_ELEMENT; ) {
+            if ((longMap.getKeyAt(it) & 1) == 0) {
+                etalon.remove(longMap.getKeyAt(it));
+                it = longMap.removeAt(it);
+            } else {
+                it = longMap.getNext(it);
+            }
+        }
+        Assert.assertEquals(etalon.size(), longMap.size());
+        for (Map.Entry<Long, Long> entry : etalon.entrySet()) {
+            Assert.assertEquals(entry.getValue().longValue(), longMap.get(entry.getKey()));
+        }
+        longMap.clear();
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertEquals(-1, longMap.get(1));
+
+        // Sequential keys at maximal load.
+        LongToLongCuckooHashMap fullMap = new LongToLongCuckooHashMap(1 << 16, -1);
+        int capacity = fullMap.getCapacity();
+        for (int i = 0; i < capacity; ++i) fullMap.set((long) i << 20, i);
+        Assert.assertEquals(capacity, fullMap.getCapacity());
+        Assert.assertTrue(fullMap.getStashSize() <= 4);
+        for (int i = 0; i < capacity; ++i) Assert.assertEquals(i, fullMap.get((long) i << 20));
+    }
+
+    @Test
+    public void smallHashMapStressTest() {
+        Random rand = new Random(103);
+        for (int round = 0; round < 2000; ++round) {
+            // Small key range keeps most maps around list threshold, so they switch between modes often.
+            int keyRange = round % 2 == 0 ? 12 : 200;
+            IntToLongSmallHashMap intMap = new IntToLongSmallHashMap(1, -1);
+            ObjToObjSmallHashMap<String, String> objMap = new ObjToObjSmallHashMap<>(4, null, HashStrategy.MURMUR3, 4);
+            HashMap<Integer, Long> etalon = new HashMap<>();
+            for (int i = 0; i < 300; ++i) {
+                int key = rand.nextInt(keyRange);
+                int operation = rand.nextInt(3);
+                if (operation == 0) {
+                    Long expected = etalon.remove(key);
+                    Assert.assertEquals(expected == null ? -1 : expected.longValue(), intMap.remove(key));
+                    Assert.assertEquals(expected == null ? null : expected.toString(), objMap.remove(Integer.toString(key)));
+                } else if (operation == 1) {
+                    Long expected = etalon.get(key);
+                    Assert.assertEquals(expected == null ? -1 : expected.longValue(), intMap.get(key));
+                    Assert.assertEquals(expected == null ? null : expected.toString(), objMap.get(Integer.toString(key)));
+                } else {
+                    etalon.put(key, (long) i);
+                    intMap.set(key, i);
+                    objMap.set(Integer.toString(key), Long.toString(i));
+                }
+                Assert.assertEquals(etalon.size(), intMap.size());
+                Assert.assertEquals(etalon.size(), objMap.size());
+                Assert.assertEquals(intMap.size() > 8 || intMap.isIndexed(), intMap.isIndexed());
+            }
+            int found = 0;
+            for (long it = objMap.getFirst(); it != ObjToObjSmallHashMap.NO_ELEMENT; ) {
+                int key = Integer.parseInt(objMap.getKeyAt(it));
+                Assert.assertEquals(etalon.get(key).toString(), objMap.getValueAt(it));
+                found++;
+                if ((key & 1) == 0) {
+                    it = objMap.removeAt(it);
+                    Assert.assertTrue(intMap.tryRemove(key));
+                } else {
+                    it = objMap.getNext(it);
+                }
+            }
+            Assert.assertEquals(etalon.size(), found);
+            for (Map.Entry<Integer, Long> entry : etalon.entrySet()) {
+                boolean removed = (entry.getKey() & 1) == 0;
+                Assert.assertEquals(removed ? -1 : entry.getValue().longValue(), intMap.get(entry.getKey()));
+                Assert.assertEquals(!removed, objMap.containsKey(entry.getKey().toString()));
+            }
+            intMap.clear();
+            Assert.assertTrue(intMap.isEmpty());
+            Assert.assertEquals(-1, intMap.get(1));
+        }
+    }
+
+    @Test
+    public void generationClearTest() {
+        LongToLongHashMap longMap = new LongToLongHashMap(64, -1);
+        IntToObjHashMap<String> intMap = new IntToObjHashMap<>(null);
+        ObjToObjHashMap<String, Long> objMap = new ObjToObjHashMap<>(null);
+        longMap.setGenerationClear(true);
+        intMap.setGenerationClear(true);
+        objMap.setGenerationClear(true);
+        intMap.setIncrementalResize(true);
+        // Generation counter wraps on the next clear.
+        objMap.generation = -1;
+        HashMap<Long, Long> etalon = new HashMap<>();
+        Random rand = new Random(105);
+        for (int i = 0; i < 300000; ++i) {
+            long key = rand.nextInt(i < 100000 ? 100 : 5000);
+            int operation = rand.nextInt(200);
+            if (operation == 0) {
+                etalon.clear();
+                longMap.clear();
+                intMap.clear();
+                objMap.clear();
+            } else if (operation < 50) {
+                Long expected = etalon.remove(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.remove(key));
+                Assert.assertEquals(expected != null, intMap.tryRemove((int) key));
+                Assert.assertEquals(expected, objMap.remove(Long.toString(key)));
+            } else if (operation < 100) {
+                Long expected = etalon.get(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.get(key));
+                Assert.assertEquals(expected == null ? null : expected.toString(), intMap.get((int) key));
+                Assert.assertEquals(expected, objMap.get(Long.toString(key)));
+            } else if (operation < 199) {
+                etalon.put(key, (long) i);
+                longMap.set(key, i);
+                intMap.set((int) key, Long.toString(i));
+                objMap.set(Long.toString(key), (long) i);
+            } else {
+                int found = 0;
+                for (long it = longMap.getFirst(); it != LongToLongHashMap.NO_ELEMENT; it = longMap.getNext(it)) {
+                    Assert.assertEquals(etalon.get(longMap.getKeyAt(it)).longValue(), longMap.getValueAt(it));
+                    found++;
+                }
+                Assert.assertEquals(etalon.size(), found);
+                final int[] visited = new int[3];
+                longMap.forEach((k, v) -> {
+                    Assert.assertEquals(etalon.get(k).longValue(), v);
+                    visited[0]++;
+                });
+                intMap.forEach((k, v) -> visited[1]++);
+                objMap.forEach((k, v) -> visited[2]++);
+                Assert.assertArrayEquals(new int[]{etalon.size(), etalon.size(), etalon.size()}, visited);
+            }
+            Assert.assertEquals(etalon.size(), longMap.size());
+            Assert.assertEquals(etalon.size(), intMap.size());
+            Assert.assertEquals(etalon.size(), objMap.size());
+        }
+        Assert.assertTrue(objMap.generation > 0);
+        int found = 0;
+        for (long it = intMap.getFirst(); it != IntToObjHashMap.NO_ELEMENT; it = intMap.getNext(it)) {
+            Assert.assertEquals(etalon.get((long) intMap.getKeyAt(it)).toString(), intMap.getValueAt(it));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+
+        // Slot scans must not see elements of previous generation.
+        for (long key = 0; key < 10; ++key) {
+            longMap.set(key, key);
+            objMap.set(Long.toString(key), key);
+        }
+        longMap.clear();
+        objMap.clear();
+        longMap.set(100, 100);
+        objMap.set("100", 100L);
+        int unsafeFound = 0;
+        for (int it = longMap.getUnsafeFirst(); it != LongToLongHashMap.NO_ELEMENT; it = longMap.getUnsafeNext(it)) {
+            Assert.assertEquals(100, longMap.getKeyByUnsafeIterator(it));
+            unsafeFound++;
+        }
+        Assert.assertEquals(1, unsafeFound);
+        final int[] visited = new int[2];
+        longMap.forEach((k, v) -> visited[0]++);
+        objMap.forEach((k, v) -> visited[1]++);
+        Assert.assertArrayEquals(new int[]{1, 1}, visited);
+        longMap.clear();
+        objMap.clear();
+        longMap.set(200, 200);
+        objMap.set("200", 200L);
+        Assert.assertFalse(longMap.removeIf((k, v) -> k != 200));
+        Assert.assertFalse(objMap.removeIf((k, v) -> !"200".equals(k)));
+        Assert.assertEquals(1, longMap.size());
+        Assert.assertEquals(1, objMap.size());
+        Assert.assertTrue(longMap.removeIf((k, v) -> k == 200));
+        Assert.assertTrue(objMap.removeIf((k, v) -> "200".equals(k)));
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertTrue(objMap.isEmpty());
+
+        objMap.setGenerationClear(false);
+        objMap.clear();
+        Assert.assertTrue(objMap.isEmpty());
+        Assert.assertNull(objMap.get("1"));
+    }
+
+    @Test
+    public void frozenHashMapTest() {
+        Random rand = new Random(107);
+        for (int size : new int[] {0, 1, 2, 5, 100, 1000, 100000}) {
+            LongToLongHashMap longSource = new LongToLongHashMap(-1);
+            CharSequenceToObjHashMap<String> stringSource = new CharSequenceToObjHashMap<>(null);
+            HashMap<Long, Long> etalon = new HashMap<>();
+            while (etalon.size() < size) {
+                long key = rand.nextLong() >> rand.nextInt(64);
+                long value = rand.nextLong();
+                etalon.put(key, value);
+                longSource.set(key, value);
+                stringSource.set(Long.toString(key), Long.toString(value));
+            }
+            LongToLongFrozenHashMap longMap = LongToLongFrozenHashMap.freeze(longSource);
+            CharSequenceToObjFrozenHashMap<String> stringMap = CharSequenceToObjFrozenHashMap.freeze(stringSource);
+            Assert.assertEquals(size, longMap.size());
+            Assert.assertEquals(size, stringMap.size());
+            Assert.assertEquals(size == 0, stringMap.isEmpty());
+            for (Map.Entry<Long, Long> entry : etalon.entrySet()) {
+                Assert.assertEquals(entry.getValue().longValue(), longMap.get(entry.getKey()));
+                Assert.assertEquals(entry.getValue().toString(), stringMap.get(new MutableString(entry.getKey().toString())));
+            }
+            for (int i = 0; i < 1000; ++i) {
+                long key = rand.nextLong();
+                Long expected = etalon.get(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.get(key));
+                Assert.assertEquals(expected != null, stringMap.containsKey(Long.toString(key)));
+                Assert.assertEquals(expected != null, stringMap.containsKey(Long.toString(key) + "0"));
+            }
+            int found = 0;
+            MutableString key = new MutableString();
+            for (long it = stringMap.getFirst(); it != CharSequenceToObjFrozenHashMap.NO_ELEMENT; it = stringMap.getNext(it)) {
+                long parsed = Long.parseLong(stringMap.getKeyAt(it, key).toString());
+                Assert.assertEquals(etalon.get(parsed).toString(), stringMap.getValueAt(it));
+                Assert.assertEquals(it, stringMap.locate(key));
+                Assert.assertEquals(etalon.get(longMap.getKeyAt(it)).longValue(), longMap.getValueAt(it));
+                found++;
+            }
+            Assert.assertEquals(size, found);
+        }
+        IntToIntHashMap empty = new IntToIntHashMap(7);
+        Assert.assertEquals(7, IntToIntFrozenHashMap.freeze(empty).get(0));
+    }
+
+    @Test
+    public void updateOperationsTest() {
+        LongToLongHashMap longMap = new LongToLongHashMap(4, -1);
+        ObjToDoubleHashMap<String> doubleMap = new ObjToDoubleHashMap<>(0.0);
+        IntToObjHashMap<String> intMap = new IntToObjHashMap<>(null);
+        ObjToObjHashMap<String, String> objMap = new ObjToObjHashMap<>("");
+        HashMap<Long, Long> etalon = new HashMap<>();
+        HashMap<Integer, String> stringEtalon = new HashMap<>();
+        HashSet<String> objEtalon = new HashSet<>();
+        Random rand = new Random(109);
+        for (int i = 0; i < 200000; ++i) {
+            long key = rand.nextInt(i < 100000 ? 100 : 10000);
+            long delta = rand.nextInt(1000);
+            int operation = rand.nextInt(5);
+            if (operation == 0) {
+                long expected = etalon.containsKey(key) ? etalon.get(key) : -1;
+                etalon.put(key, expected + delta);
+                Assert.assertEquals(expected, longMap.addTo(key, delta));
+                doubleMap.addTo(Long.toString(key), delta);
+            } else if (operation == 1) {
+                long expected = (etalon.containsKey(key) ? etalon.get(key) : -1) * 3 + key;
+                etalon.put(key, expected);
+                Assert.assertEquals(expected, longMap.compute(key, (k, v) -> v * 3 + k));
+                doubleMap.set(Long.toString(key), expected + 1);
+            } else if (operation == 2) {
+                long expected = etalon.merge(key, delta, Math::max);
+                Assert.assertEquals(expected, longMap.merge(key, delta, Math::max));
+                doubleMap.set(Long.toString(key), expected + 1);
+            } else if (operation == 3) {
+                Long expected = etalon.remove(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.remove(key));
+                doubleMap.remove(Long.toString(key));
+            } else {
+                Long expected = etalon.get(key);
+                Assert.assertEquals(expected == null ? -5 : expected.longValue(), longMap.getOrDefault(key, -5));
+                Assert.assertEquals(expected == null ? -5 : expected + 1, doubleMap.getOrDefault(Long.toString(key), -5), 0);
+            }
+            Assert.assertEquals(etalon.size(), longMap.size());
+            Assert.assertEquals(etalon.size(), doubleMap.size());
+
+            int stringKey = (int) key;
+            String value = Long.toString(delta);
+            if (operation < 2) {
+                String expected = stringEtalon.merge(stringKey, value, String::concat);
+                Assert.assertEquals(expected, intMap.merge(stringKey, value, (a, b) -> (String) a + b));
+                Assert.assertEquals(value, objMap.merge(value, value, (a, b) -> b));
+                objEtalon.add(value);
+            } else if (operation < 4) {
+                String expected = stringKey + "=" + stringEtalon.get(stringKey);
+                stringEtalon.put(stringKey, expected);
+                Assert.assertEquals(expected, intMap.compute(stringKey, (k, v) -> k + "=" + v));
+            } else {
+                Assert.assertEquals(stringEtalon.get(stringKey), intMap.getOrDefault(stringKey, null));
+                Assert.assertEquals(objEtalon.contains(value) ? value : null, objMap.getOrDefault(value, null));
+            }
+            Assert.assertEquals(stringEtalon.size(), intMap.size());
+            Assert.assertEquals(objEtalon.size(), objMap.size());
+        }
+        int found = 0;
+        for (long it = longMap.getFirst(); it != LongToLongHashMap.NO_ELEMENT; it = longMap.getNext(it)) {
+            Assert.assertEquals(etalon.get(longMap.getKeyAt(it)).longValue(), longMap.getValueAt(it));
+            found++;
+        }
+        Assert.assertEquals(etalon.size(), found);
+    }
+
+    @Test
+    public void multiMapStressTest() {
+        LongToLongMultiMap longMap = new LongToLongMultiMap(1, 1);
+        LongToObjMultiMap<String> objMap = new LongToObjMultiMap<>();
+        HashMap<Long, ArrayList<Long>> etalon = new HashMap<>();
+        Random rand = new Random(111);
+        int size = 0;
+        for (int i = 0; i < 300000; ++i) {
+            long key = rand.nextInt(i < 150000 ? 50 : 2000);
+            long value = rand.nextInt(20);
+            ArrayList<Long> list = etalon.get(key);
+            int operation = rand.nextInt(10);
+            if (operation < 5) {
+                if (list == null) etalon.put(key, list = new ArrayList<>());
+                list.add(value);
+                longMap.put(key, value);
+                objMap.put(key, Long.toString(value));
+                size++;
+            } else if (operation < 8) {
+                boolean expected = list != null && list.remove(value);
+                if (expected && list.isEmpty()) etalon.remove(key);
+                if (expected) size--;
+                Assert.assertEquals(expected, longMap.removeValue(key, value));
+                Assert.assertEquals(expected, objMap.removeValue(key, Long.toString(value)));
+            } else if (operation == 8) {
+                // Remove every second element by id.
+                int index = 0;
+                for (int it = longMap.getFirst(key), objIt = objMap.getFirst(key); it != LongToLongMultiMap.NO_ELEMENT; ++index) {
+                    if ((index & 1) == 0) {
+                        it = longMap.removeAt(key, it);
+                        objIt = objMap.removeAt(key, objIt);
+                    } else {
+                        it = longMap.getNext(it);
+                        objIt = objMap.getNext(objIt);
+                    }
+                }
+                if (list != null) {
+                    ArrayList<Long> rest = new ArrayList<>();
+                    for (int j = 1; j < list.size(); j += 2) rest.add(list.get(j));
+                    size -= list.size() - rest.size();
+                    if (rest.isEmpty()) etalon.remove(key);
+                    else etalon.put(key, rest);
+                }
+            } else {
+                if (rand.nextInt(20) == 0) {
+                    Assert.assertEquals(list == null ? 0 : list.size(), longMap.removeKey(key));
+                    objMap.removeKey(key);
+                    if (list != null) size -= list.size();
+                    etalon.remove(key);
+                } else {
+                    ArrayList<Long> values = new ArrayList<>();
+                    longMap.forEachValue(key, values::add);
+                    Assert.assertEquals(list == null ? new ArrayList<Long>() : list, values);
+                    ArrayList<String> strings = new ArrayList<>();
+                    objMap.forEachValue(key, v -> strings.add((String) v));
+                    Assert.assertEquals(values.size(), strings.size());
+                    for (int j = 0; j < strings.size(); ++j) Assert.assertEquals(values.get(j).toString(), strings.get(j));
+                }
+            }
+            list = etalon.get(key);
+            Assert.assertEquals(list == null ? 0 : list.size(), longMap.count(key));
+            Assert.assertEquals(list == null ? 0 : list.size(), objMap.count(key));
+            Assert.assertEquals(list != null, longMap.containsKey(key));
+            Assert.assertEquals(etalon.size(), longMap.keyCount());
+            Assert.assertEquals(etalon.size(), objMap.keyCount());
+            Assert.assertEquals(size, longMap.size());
+            Assert.assertEquals(size, objMap.size());
+        }
+        try {
+            longMap.removeAt(-7, longMap.getFirst(0));
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Element of other key.
+        }
+        longMap.clear();
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertEquals(0, longMap.count(1));
+        longMap.put(1, 5);
+        Assert.assertEquals(5, longMap.getValueAt(longMap.getFirst(1)));
+    }
+
+    @Test
+    public void biMapStressTest() {
+        LongIntBiMap longMap = new LongIntBiMap(1, Long.MIN_VALUE, -1);
+        CharSequenceIntBiMap stringMap = new CharSequenceIntBiMap(null, -1);
+        HashMap<Long, Integer> forward = new HashMap<>();
+        HashMap<Integer, Long> backward = new HashMap<>();
+        Random rand = new Random(113);
+        for (int i = 0; i < 300000; ++i) {
+            int range = i < 150000 ? 50 : 3000;
+            long key = rand.nextInt(range) * 1000003L;
+            int value = rand.nextInt(range);
+            MutableString stringKey = new MutableString().append(key);
+            int operation = rand.nextInt(8);
+            if (operation == 0) {
+                Long owner = backward.get(value);
+                boolean conflict = owner != null && owner != key;
+                try {
+                    longMap.put(key, value);
+                    stringMap.put(stringKey, value);
+                    Assert.assertFalse(conflict);
+                } catch (IllegalArgumentException e) {
+                    Assert.assertTrue(conflict);
+                }
+                if (!conflict) {
+                    Integer old = forward.put(key, value);
+                    if (old != null) backward.remove(old);
+                    backward.put(value, key);
+                }
+            } else if (operation == 1) {
+                longMap.forcePut(key, value);
+                stringMap.forcePut(stringKey, value);
+                Integer old = forward.remove(key);
+                if (old != null) backward.remove(old);
+                Long owner = backward.remove(value);
+                if (owner != null) forward.remove(owner);
+                forward.put(key, value);
+                backward.put(value, key);
+            } else if (operation == 2) {
+                boolean expected = !forward.containsKey(key) && !backward.containsKey(value);
+                Assert.assertEquals(expected, longMap.tryPut(key, value));
+                Assert.assertEquals(expected, stringMap.tryPut(stringKey, value));
+                if (expected) {
+                    forward.put(key, value);
+                    backward.put(value, key);
+                }
+            } else if (operation == 3) {
+                Integer expected = forward.remove(key);
+                if (expected != null) backward.remove(expected);
+                Assert.assertEquals(expected == null ? -1 : expected.intValue(), longMap.removeKey(key));
+                Assert.assertEquals(expected == null ? -1 : expected.intValue(), stringMap.removeKey(Long.toString(key)));
+            } else if (operation == 4) {
+                Long expected = backward.remove(value);
+                if (expected != null) forward.remove(expected);
+                Assert.assertEquals(expected == null ? Long.MIN_VALUE : expected.longValue(), longMap.removeValue(value));
+                CharSequence removed = stringMap.removeValue(value);
+                Assert.assertEquals(expected == null ? null : expected.toString(), removed == null ? null : removed.toString());
+            } else {
+                Integer expectedValue = forward.get(key);
+                Long expectedKey = backward.get(value);
+                Assert.assertEquals(expectedValue == null ? -1 : expectedValue.intValue(), longMap.getValue(key));
+                Assert.assertEquals(expectedValue == null ? -1 : expectedValue.intValue(), stringMap.getValue(Long.toString(key)));
+                Assert.assertEquals(expectedKey == null ? Long.MIN_VALUE : expectedKey.longValue(), longMap.getKey(value));
+                Assert.assertEquals(expectedKey != null, stringMap.containsValue(value));
+                Assert.assertEquals(expectedValue != null, longMap.containsKey(key));
+            }
+            Assert.assertEquals(forward.size(), longMap.size());
+            Assert.assertEquals(forward.size(), stringMap.size());
+            Assert.assertEquals(forward.size(), backward.size());
+        }
+        int found = 0;
+        for (long it = longMap.getFirst(); it != LongIntBiMap.NO_ELEMENT; ) {
+            long key = longMap.getKeyAt(it);
+            Assert.assertEquals(forward.get(key).intValue(), longMap.getValueAt(it));
+            found++;
+            if ((key & 1) == 0) {
+                it = longMap.removeAt(it);
+                backward.remove(forward.remove(key));
+            } else {
+                it = longMap.getNext(it);
+            }
+        }
+        Assert.assertEquals(found, stringMap.size());
+        Assert.assertEquals(forward.size(), longMap.size());
+        for (Map.Entry<Integer, Long> entry : backward.entrySet()) {
+            Assert.assertEquals(entry.getValue().longValue(), longMap.getKey(entry.getKey()));
+        }
+        longMap.clear();
+        stringMap.clear();
+        Assert.assertTrue(longMap.isEmpty());
+        Assert.assertFalse(longMap.containsValue(1));
+        Assert.assertEquals(LongIntBiMap.NO_ELEMENT, stringMap.getFirst());
+        // Cleared bimap is fully functional.
+        for (int i = 0; i < 1000; ++i) {
+            longMap.put(i, i + 1);
+            stringMap.put(Integer.toString(i), i + 1);
+        }
+        Assert.assertEquals(1000, longMap.size());
+        Assert.assertEquals(1000, stringMap.size());
+        Assert.assertEquals(500, longMap.getKey(501));
+        Assert.assertEquals(501, stringMap.getValue("500"));
+    }
+
+    @Test
+    public void directMapStressTest() {
+        IntToLongDirectMap longMap = new IntToLongDirectMap(1, -1);
+        IntToObjDirectMap<String> objMap = new IntToObjDirectMap<>(null);
+        TreeMap<Integer, Long> etalon = new TreeMap<>();
+        Random rand = new Random(117);
+        for (int i = 0; i < 300000; ++i) {
+            int key = rand.nextInt(i < 100000 ? 100 : 5000);
+            int operation = rand.nextInt(100);
+            if (operation == 0) {
+                etalon.clear();
+                longMap.clear();
+                objMap.clear();
+            } else if (operation < 30) {
+                Long expected = etalon.remove(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.remove(key));
+                Assert.assertEquals(expected != null, objMap.tryRemove(key));
+            } else if (operation < 60) {
+                Long expected = etalon.get(key);
+                Assert.assertEquals(expected == null ? -1 : expected.longValue(), longMap.get(key));
+                Assert.assertEquals(expected == null ? null : expected.toString(), objMap.get(key));
+                Assert.assertEquals(expected != null, longMap.containsKey(key));
+                Assert.assertEquals(-1, longMap.get(-key - 1));
+            } else if (operation < 98) {
+                etalon.put(key, (long) i);
+                longMap.set(key, i);
+                objMap.set(key, Long.toString(i));
+            } else if (operation < 99) {
+                boolean expected = !etalon.containsKey(key);
+                Assert.assertEquals(expected, longMap.trySet(key, i));
+                Assert.assertEquals(expected, objMap.trySet(key, Long.toString(i)));
+                if (expected) etalon.put(key, (long) i);
+            } else {
+                // Iteration visits keys in ascending order, so it matches TreeMap.
+                Iterator<Map.Entry<Integer, Long>> expected = etalon.entrySet().iterator();
+                for (long it = longMap.getFirst(); it != IntToLongDirectMap.NO_ELEMENT; it = longMap.getNext(it)) {
+                    Map.Entry<Integer, Long> entry = expected.next();
+                    Assert.assertEquals(entry.getKey().intValue(), longMap.getKeyAt(it));
+                    Assert.assertEquals(entry.getValue().longValue(), longMap.getValueAt(it));
+                    Assert.assertEquals(entry.getValue().toString(), objMap.getValueAt(objMap.locate(longMap.getKeyAt(it))));
+                }
+                Assert.assertFalse(expected.hasNext());
+                long[] sum = new long[1];
+                longMap.forEach((k, v) -> sum[0] += k + v);
+                long expectedSum = 0;
+                for (Map.Entry<Integer, Long> entry : etalon.entrySet()) expectedSum += entry.getKey() + entry.getValue();
+                Assert.assertEquals(expectedSum, sum[0]);
+            }
+            Assert.assertEquals(etalon.size(), longMap.size());
+            Assert.assertEquals(etalon.size(), objMap.size());
+        }
+        for (long it = objMap.getFirst(); it != IntToObjDirectMap.NO_ELEMENT; ) {
+            it = (objMap.getKeyAt(it) & 1) == 0 ? objMap.removeAt(it) : objMap.getNext(it);
+        }
+        for (int key : etalon.keySet()) Assert.assertEquals((key & 1) != 0, objMap.containsKey(key));
+        try {
+            longMap.set(-1, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // Negative keys are not supported.
+        }
+    }
+}
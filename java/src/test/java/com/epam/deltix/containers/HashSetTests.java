@@ -16,7 +16,10 @@
  */
 package com.epam.deltix.containers;
 
+import com.epam.deltix.containers.generated.IntSparseSet;
 import com.epam.deltix.containers.generated.LongHashSet;
+import com.epam.deltix.containers.generated.LongSmallHashSet;
+import com.epam.deltix.containers.generated.ObjSmallHashSet;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -138,4 +141,174 @@ public class HashSetTests {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void incrementalResizeStressTest() {
+        Random r = new Random(55);
+        HashSet<Long> etalon = new HashSet<>();
+        ObjHashSet<Long> tested = new ObjHashSet<>(2);
+        LongHashSet testedPrimitive = new LongHashSet(2);
+        tested.setIncrementalResize(true);
+        testedPrimitive.setIncrementalResize(true);
+        boolean wasResizing = false;
+        for (int i = 0; i < 1000000; ++i) {
+            long x = r.nextInt(1 << 18);
+            if (r.nextInt(3) != 0) {
+                etalon.add(x);
+                tested.put(x);
+                testedPrimitive.put(x);
+            } else {
+                boolean contains = etalon.remove(x);
+                Assert.assertEquals(contains, tested.remove(x));
+                Assert.assertEquals(contains, testedPrimitive.remove(x));
+            }
+            wasResizing |= tested.isResizing() && testedPrimitive.isResizing();
+            Assert.assertEquals(etalon.size(), tested.size());
+            Assert.assertEquals(etalon.size(), testedPrimitive.size());
+        }
+        Assert.assertTrue(wasResizing);
+        for (long x = 0; x < (1 << 18); ++x) {
+            Assert.assertEquals(etalon.contains(x), tested.containsKey(x));
+            Assert.assertEquals(etalon.contains(x), testedPrimitive.containsKey(x));
+        }
+        boolean resizing = testedPrimitive.isResizing();
+        int iterated = 0;
+        for (Long x : testedPrimitive) {
+            Assert.assertTrue(etalon.contains(x));
+            iterated++;
+        }
+        Assert.assertEquals(resizing, testedPrimitive.isResizing());
+        Assert.assertEquals(etalon.size(), iterated);
+    }
+
+    @Test
+    public void forEachKeyAndRemoveIfTest() {
+        Random r = new Random(55);
+        HashSet<Long> etalon = new HashSet<>();
+        ObjHashSet<Long> tested = new ObjHashSet<>();
+        LongHashSet testedPrimitive = new LongHashSet();
+        for (int i = 0; i < 100000; ++i) {
+            long x = r.nextInt(1 << 16);
+            etalon.add(x);
+            tested.put(x);
+            testedPrimitive.put(x);
+        }
+        HashSet<Long> visited = new HashSet<>();
+        testedPrimitive.forEachKey((long x) -> Assert.assertTrue(visited.add(x)));
+        Assert.assertEquals(etalon, visited);
+        visited.clear();
+        tested.forEachKey((Object x) -> Assert.assertTrue(visited.add((Long) x)));
+        Assert.assertEquals(etalon, visited);
+
+        Assert.assertTrue(testedPrimitive.removeIf((long x) -> x % 5 != 0));
+        Assert.assertTrue(tested.removeIf((Object x) -> (Long) x % 5 != 0));
+        etalon.removeIf(x -> x % 5 != 0);
+        Assert.assertEquals(etalon.size(), testedPrimitive.size());
+        Assert.assertEquals(etalon.size(), tested.size());
+        for (long x = 0; x < (1 << 16); ++x) {
+            Assert.assertEquals(etalon.contains(x), testedPrimitive.containsKey(x));
+            Assert.assertEquals(etalon.contains(x), tested.containsKey(x));
+        }
+    }
+
+    @Test
+    public void smallHashSetStressTest() {
+        Random r = new Random(57);
+        for (int round = 0; round < 2000; ++round) {
+            int keyRange = round % 2 == 0 ? 12 : 200;
+            LongSmallHashSet tested = new LongSmallHashSet(2);
+            ObjSmallHashSet<Long> testedObj = new ObjSmallHashSet<>();
+            HashSet<Long> etalon = new HashSet<>();
+            for (int i = 0; i < 300; ++i) {
+                long x = r.nextInt(keyRange);
+                int operation = r.nextInt(3);
+                if (operation == 0) {
+                    boolean expected = etalon.remove(x);
+                    Assert.assertEquals(expected, tested.remove(x));
+                    Assert.assertEquals(expected, testedObj.remove(x));
+                } else if (operation == 1) {
+                    Assert.assertEquals(etalon.contains(x), tested.containsKey(x));
+                    Assert.assertEquals(etalon.contains(x), testedObj.containsKey(x));
+                } else {
+                    boolean expected = etalon.add(x);
+                    Assert.assertEquals(expected, tested.tryPut(x));
+                    testedObj.put(x);
+                }
+                Assert.assertEquals(etalon.size(), tested.size());
+                Assert.assertEquals(etalon.size(), testedObj.size());
+            }
+            HashSet<Long> iterated = new HashSet<>();
+            for (long it = tested.getFirst(); it != LongSmallHashSet.NO_ELEMENT; it = tested.getNext(it)) {
+                iterated.add(tested.getKeyAt(it));
+            }
+            Assert.assertEquals(etalon, iterated);
+        }
+    }
+
+    @Test
+    public void generationClearTest() {
+        Random r = new Random(59);
+        LongHashSet tested = new LongHashSet(16);
+        ObjHashSet<Long> testedObj = new ObjHashSet<>(16);
+        tested.setGenerationClear(true);
+        testedObj.setGenerationClear(true);
+        HashSet<Long> etalon = new HashSet<>();
+        for (int i = 0; i < 300000; ++i) {
+            long x = r.nextInt(i < 100000 ? 50 : 3000);
+            int operation = r.nextInt(100);
+            if (operation == 0) {
+                etalon.clear();
+                tested.clear();
+                testedObj.clear();
+            } else if (operation < 30) {
+                boolean expected = etalon.remove(x);
+                Assert.assertEquals(expected, tested.remove(x));
+                Assert.assertEquals(expected, testedObj.remove(x));
+            } else if (operation < 60) {
+                Assert.assertEquals(etalon.contains(x), tested.containsKey(x));
+                Assert.assertEquals(etalon.contains(x), testedObj.containsKey(x));
+            } else if (operation < 99) {
+                etalon.add(x);
+                tested.put(x);
+                testedObj.put(x);
+            } else {
+                HashSet<Long> iterated = new HashSet<>();
+                for (long it = testedObj.getFirst(); it != ObjHashSet.NO_ELEMENT; it = testedObj.getNext(it)) {
+                    iterated.add(testedObj.getKeyAt(it));
+                }
+                Assert.assertEquals(etalon, iterated);
+            }
+            Assert.assertEquals(etalon.size(), tested.size());
+            Assert.assertEquals(etalon.size(), testedObj.size());
+        }
+    }
+
+    @Test
+    public void sparseSetStressTest() {
+        IntSparseSet tested = new IntSparseSet(1);
+        HashSet<Integer> etalon = new HashSet<>();
+        Random r = new Random(115);
+        for (int i = 0; i < 300000; ++i) {
+            int x = r.nextInt(i < 100000 ? 50 : 3000);
+            int operation = r.nextInt(100);
+            if (operation == 0) {
+                etalon.clear();
+                tested.clear();
+            } else if (operation < 30) {
+                Assert.assertEquals(etalon.remove(x), tested.remove(x));
+            } else if (operation < 60) {
+                Assert.assertEquals(etalon.contains(x), tested.contains(x));
+                Assert.assertFalse(tested.contains(-x - 1));
+            } else if (operation < 99) {
+                Assert.assertEquals(etalon.add(x), tested.add(x));
+            } else {
+                HashSet<Integer> iterated = new HashSet<>();
+                for (int j = 0; j < tested.size(); ++j) iterated.add(tested.get(j));
+                Assert.assertEquals(etalon, iterated);
+                HashSet<Integer> visited = new HashSet<>();
+                tested.forEach(visited::add);
+                Assert.assertEquals(etalon, visited);
+            }
+            Assert.assertEquals(etalon.size(), tested.size());
+        }
+    }
+}
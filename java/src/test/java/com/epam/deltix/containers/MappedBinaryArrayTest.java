@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021 EPAM Systems, Inc
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.epam.deltix.containers;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class MappedBinaryArrayTest {
+    @Test
+    public void testSegmentedMapping() throws IOException {
+        Random random = new Random(23);
+        byte[] bytes = new byte[50000];
+        random.nextBytes(bytes);
+        BinaryArray heap = new BinaryArray(bytes);
+        File file = File.createTempFile("mappedBinaryArray", ".bin");
+        try {
+            Files.write(file.toPath(), bytes);
+            MappedBinaryArray mapped;
+            // Segments of 4 KB to cross their borders on small file.
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                mapped = MappedBinaryArray.map(channel, 0, channel.size(), 12);
+            }
+            Assert.assertEquals(bytes.length, mapped.length());
+            Assert.assertEquals(bytes.length, mapped.size());
+            for (int i = 0; i <= bytes.length - 8; ++i) {
+                Assert.assertEquals(heap.toInt64(i), mapped.toInt64(i));
+                Assert.assertEquals(heap.toInt32(i), mapped.toInt32(i));
+                Assert.assertEquals(heap.toInt16(i), mapped.toInt16(i));
+                Assert.assertEquals(heap.getByteAt(i), mapped.getByteAt(i));
+                Assert.assertEquals(heap.toDouble(i), mapped.toDouble((long) i), 0);
+            }
+            Assert.assertEquals(heap.toByte(bytes.length - 1), mapped.toByte(bytes.length - 1));
+            try {
+                mapped.toInt64(bytes.length - 7);
+                Assert.fail();
+            } catch (IndexOutOfBoundsException e) {
+                // Read outside of mapping.
+            }
+            Assert.assertArrayEquals(bytes, mapped.toByteArray());
+            Assert.assertTrue(mapped.equals(heap));
+            Assert.assertTrue(heap.equals((Object) mapped));
+            Assert.assertEquals(heap.hashCode(), mapped.hashCode());
+
+            for (int i = 0; i < 200; ++i) {
+                int offset = random.nextInt(bytes.length);
+                int length = random.nextInt(Math.min(bytes.length - offset, 10000) + 1);
+                MappedBinaryArray slice = mapped.slice(offset, length);
+                BinaryArray expected = new BinaryArray().append(bytes, offset, length);
+                Assert.assertArrayEquals(Arrays.copyOfRange(bytes, offset, offset + length), slice.toByteArray());
+                Assert.assertTrue(slice.equals(expected));
+                Assert.assertEquals(expected.hashCode(), slice.hashCode());
+                if (length >= 8)
+                    Assert.assertEquals(expected.toInt64(length - 8), slice.toInt64(length - 8));
+
+                BinaryArray copy = new BinaryArray();
+                slice.copyTo(copy);
+                Assert.assertEquals(expected, copy);
+                try (DirectBinaryArray direct = new DirectBinaryArray()) {
+                    slice.copyTo(direct);
+                    Assert.assertTrue(direct.equals(expected));
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testEqualsSymmetry() throws IOException {
+        byte[] bytes = new byte[37];
+        new Random(29).nextBytes(bytes);
+        byte[] other = bytes.clone();
+        other[20]++;
+        File file = File.createTempFile("mappedBinaryArray", ".bin");
+        try {
+            byte[] content = new byte[bytes.length * 2];
+            System.arraycopy(bytes, 0, content, 0, bytes.length);
+            System.arraycopy(other, 0, content, bytes.length, bytes.length);
+            Files.write(file.toPath(), content);
+            MappedBinaryArray mapped;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                mapped = MappedBinaryArray.map(channel, 0, channel.size(), 12);
+            }
+            BinaryArray message = new BinaryArray().append(42).append(bytes).append(other);
+            try (DirectBinaryArray direct = new DirectBinaryArray().append(bytes);
+                 DirectBinaryArray otherDirect = new DirectBinaryArray().append(other)) {
+                Object[] arrays = {new BinaryArray(bytes), direct, message.slice(4, bytes.length), mapped.slice(0, bytes.length),
+                        new BinaryArray(other), otherDirect, message.slice(4 + bytes.length, bytes.length), mapped.slice(bytes.length, bytes.length)};
+                for (int i = 0; i < arrays.length; ++i) {
+                    for (int j = 0; j < arrays.length; ++j) {
+                        boolean equal = i / 4 == j / 4;
+                        String pair = arrays[i].getClass().getSimpleName() + " and " + arrays[j].getClass().getSimpleName();
+                        Assert.assertEquals(pair, equal, arrays[i].equals(arrays[j]));
+                        Assert.assertEquals(pair, equal, arrays[j].equals(arrays[i]));
+                        if (equal)
+                            Assert.assertEquals(pair, arrays[i].hashCode(), arrays[j].hashCode());
+                    }
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}